@@ -0,0 +1,114 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+// --- 애니메이션 스케줄러 ---
+// 이벤트마다 Timer를 만드는 대신, 화면 주사율에 맞춘 Timer 하나가 진행 중인 모든 애니메이션을 한 번에 진행시킨다.
+// 진행도는 틱 횟수가 아니라 System.nanoTime 경과 시간으로 계산하므로 타이머가 늦게 와도 속도가 변하지 않는다.
+// 모든 콜백은 EDT에서 불린다. 진행 중인 애니메이션이 없으면 Timer도 멈춘다.
+final class Animator {
+    interface Frame { void apply(float t); }   // t: 이징이 적용된 0 ~ 1
+
+    private static final class Animation {
+        long start, duration;
+        boolean eased;
+        Frame frame;
+        Runnable done;
+    }
+
+    private static final List<Animation> active = new ArrayList<>();
+    private static final List<Animation> finished = new ArrayList<>();
+    private static final Timer tick = new Timer(frameMillis(), e -> onTick());
+    static { tick.setCoalesce(true); }
+
+    private Animator() {}
+
+    // eased: true면 ease-in-out (기물 이동), false면 선형 (페이드 등). done은 없어도 된다
+    static void play(long durationMillis, boolean eased, Frame frame, Runnable done) {
+        Animation a = new Animation();
+        a.start = System.nanoTime();
+        a.duration = Math.max(1, durationMillis) * 1_000_000L;
+        a.eased = eased;
+        a.frame = frame;
+        a.done = done;
+        active.add(a);
+        frame.apply(0f);
+        if (!tick.isRunning()) tick.start();
+    }
+
+    static boolean isRunning() { return !active.isEmpty(); }
+
+    private static void onTick() {
+        long now = System.nanoTime();
+        for (int i = 0; i < active.size(); i++) {
+            Animation a = active.get(i);
+            float t = Math.min(1f, (float) (now - a.start) / a.duration);
+            a.frame.apply(a.eased ? easeInOut(t) : t);
+            if (t >= 1f) finished.add(a);
+        }
+        if (!finished.isEmpty()) {
+            active.removeAll(finished);
+            // done 콜백이 새 애니메이션을 시작할 수 있으므로 목록 정리 뒤에 부른다
+            for (Animation a : finished) if (a.done != null) a.done.run();
+            finished.clear();
+        }
+        if (active.isEmpty()) tick.stop();
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    private static float easeInOut(float t) {
+        return t < 0.5f ? 4 * t * t * t : 1 - (float) Math.pow(-2 * t + 2, 3) / 2;
+    }
+
+    // 모니터 주사율 간격 (알 수 없으면 60Hz)
+    private static int frameMillis() {
+        int hz = 60;
+        try {
+            if (!GraphicsEnvironment.isHeadless()) {
+                int rate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+                if (rate > 0) hz = rate;
+            }
+        } catch (Exception e) {}
+        return Math.max(1, 1000 / hz);
+    }
+}
+
+// --- 오버레이 레이어 ---
+// 잡기 장면 같은 그림을 창 위에 잠깐 띄운다. 라벨을 붙였다 떼는 대신 이 컴포넌트 하나가 그림 영역만 다시 그린다.
+class OverlayLayer extends JComponent {
+    private Image image;
+    private float alpha;
+    private final Rectangle bounds = new Rectangle();
+
+    OverlayLayer() { setOpaque(false); }
+
+    // 창 가운데에 durationMillis 동안 띄운다 (처음 150ms 나타나고 마지막 300ms 사라진다)
+    void show(Image img, int width, int height, long durationMillis) {
+        if (image != null) repaint(bounds);
+        Container parent = getParent();
+        if (parent != null) setBounds(0, 0, parent.getWidth(), parent.getHeight());
+        image = img;
+        bounds.setBounds((getWidth() - width) / 2, (getHeight() - height) / 2, width, height);
+        Image shown = img;
+        float fadeIn = 150f / durationMillis, fadeOut = 300f / durationMillis;
+        Animator.play(durationMillis, false, t -> {
+            if (image != shown) return;
+            alpha = Math.min(1f, Math.min(t / fadeIn, (1f - t) / fadeOut));
+            repaint(bounds);
+        }, () -> {
+            if (image != shown) return;
+            image = null;
+            repaint(bounds);
+        });
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (image == null || alpha <= 0f) return;
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g2.drawImage(image, bounds.x, bounds.y, bounds.width, bounds.height, null);
+        g2.dispose();
+    }
+}
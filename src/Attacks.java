@@ -0,0 +1,139 @@
+// --- 공격 테이블 ---
+// 나이트/킹/폰 공격은 칸마다 미리 계산해 두고, 룩/비숍의 직선 공격은 매직 비트보드로 조회한다.
+// 모든 테이블은 클래스 초기화 때 한 번만 만들어지고 모든 Board가 공유한다.
+final class Attacks {
+    static final long[] KNIGHT = new long[64];
+    static final long[] KING = new long[64];
+    static final long[][] PAWN = new long[2][64];   // [0] 백 폰(위쪽 공격), [1] 흑 폰(아래쪽 공격)
+
+    private static final long[] ROOK_MASK = new long[64], BISHOP_MASK = new long[64];
+    private static final int[] ROOK_SHIFT = new int[64], BISHOP_SHIFT = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][], BISHOP_TABLE = new long[64][];
+
+    private static final int[][] ROOK_DIRS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    // 이 클래스의 칸 번호(a8 = 0, h1 = 63) 기준으로 미리 찾아 둔 매직 값.
+    // 초기화할 때마다 찾으면 수백 ms가 걸려서 상수로 고정했다.
+    private static final long[] ROOK_MAGIC = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0050500500080100L, 0x0000020080040080L, 0x0C10010400420810L, 0x1040008200005104L,
+            0x01808240088004A0L, 0x0882804004802000L, 0x0880402001001100L, 0x2000210409001000L,
+            0x2000480131001500L, 0x0000800400800200L, 0x000002380C001003L, 0x4600084882000431L,
+            0x0080002000504000L, 0x0300500020004002L, 0x0040408200220011L, 0x0010040008004040L,
+            0x0000080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+    private static final long[] BISHOP_MAGIC = {
+            0x20C0090901061081L, 0x0024040094030104L, 0x8210810200290200L, 0x0011040484620000L,
+            0x0081104002221000L, 0x0009012011001350L, 0x0081010802400380L, 0x0000420210010408L,
+            0x0008105002280050L, 0x0001028484040044L, 0x2A00880810408804L, 0x7020022282000100L,
+            0x0084040420100A50L, 0x000401010840E000L, 0x2020020210420888L, 0x0008084202012010L,
+            0x2010400810018800L, 0x0445122008020840L, 0x0804100808002008L, 0x0008002104110100L,
+            0x0061005820080800L, 0x2001000200820100L, 0x480C210084010800L, 0x3004442500480420L,
+            0x1010102240048100L, 0x00182009084220A3L, 0x8803090A10004205L, 0x0208080040202020L,
+            0x000C044084010040L, 0x00A1010002004106L, 0x6008210020640202L, 0x1600902112860801L,
+            0x00042008C1220200L, 0x010C042002440140L, 0x5022080200040820L, 0x0402004042940100L,
+            0x0860108400008020L, 0x000C080022021000L, 0x0264080652822100L, 0x4005031221010401L,
+            0x0004502410008400L, 0x000500B010A20400L, 0x0415094050080800L, 0x080000201800A104L,
+            0x4022A80304000110L, 0x4012140802028020L, 0x40200104010100A0L, 0x12810806008B0C41L,
+            0x0020441008080000L, 0x2002120084045420L, 0x0704020062080002L, 0x0000001084040001L,
+            0x0322200891240200L, 0xF040200210024800L, 0x0140824832008042L, 0x000210020A004602L,
+            0x0083042805141020L, 0x002C12009A011000L, 0x0041A00044140400L, 0x00004004020A0202L,
+            0x0000140010020210L, 0x2864160811012200L, 0x2060080841082A17L, 0xA010041108003100L
+    };
+
+    private Attacks() {}
+
+    static {
+        int[][] knightSteps = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >>> 3, c = sq & 7;
+            for (int[] d : knightSteps) KNIGHT[sq] |= bit(r + d[0], c + d[1]);
+            for (int dr = -1; dr <= 1; dr++) for (int dc = -1; dc <= 1; dc++) if (dr != 0 || dc != 0) KING[sq] |= bit(r + dr, c + dc);
+            PAWN[0][sq] = bit(r - 1, c - 1) | bit(r - 1, c + 1);
+            PAWN[1][sq] = bit(r + 1, c - 1) | bit(r + 1, c + 1);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            initMagic(sq, ROOK_DIRS, ROOK_MASK, ROOK_MAGIC[sq], ROOK_SHIFT, ROOK_TABLE);
+            initMagic(sq, BISHOP_DIRS, BISHOP_MASK, BISHOP_MAGIC[sq], BISHOP_SHIFT, BISHOP_TABLE);
+        }
+    }
+
+    static long rook(int sq, long occupied) {
+        return ROOK_TABLE[sq][(int) (((occupied & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+    static long bishop(int sq, long occupied) {
+        return BISHOP_TABLE[sq][(int) (((occupied & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+    static long queen(int sq, long occupied) { return rook(sq, occupied) | bishop(sq, occupied); }
+
+    // sq 칸이 byWhite 편 기물에게 공격받고 있는지 (핀 여부는 보지 않음)
+    static boolean isAttacked(Board board, int sq, boolean byWhite) {
+        long occ = board.getOccupied();
+        if ((KNIGHT[sq] & board.getPieces(byWhite, Piece.KNIGHT)) != 0) return true;
+        if ((KING[sq] & board.getPieces(byWhite, Piece.KING)) != 0) return true;
+        // 공격하는 쪽 폰의 위치 = 반대 색 폰이 sq에서 공격하는 칸
+        if ((PAWN[byWhite ? 1 : 0][sq] & board.getPieces(byWhite, Piece.PAWN)) != 0) return true;
+        long queens = board.getPieces(byWhite, Piece.QUEEN);
+        if ((rook(sq, occ) & (board.getPieces(byWhite, Piece.ROOK) | queens)) != 0) return true;
+        return (bishop(sq, occ) & (board.getPieces(byWhite, Piece.BISHOP) | queens)) != 0;
+    }
+
+    private static long bit(int r, int c) {
+        return (r < 0 || r > 7 || c < 0 || c > 7) ? 0L : 1L << (r * 8 + c);
+    }
+
+    // 방향별로 한 칸씩 따라가며 막힌 칸까지 포함한 공격 범위 (테이블 생성용)
+    private static long slide(int sq, long occupied, int[][] dirs) {
+        long attacks = 0;
+        for (int[] d : dirs) {
+            int r = (sq >>> 3) + d[0], c = (sq & 7) + d[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long b = 1L << (r * 8 + c);
+                attacks |= b;
+                if ((occupied & b) != 0) break;
+                r += d[0]; c += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    // 가장자리 칸은 결과에 영향을 주지 않으므로 점유 마스크에서 뺀다
+    private static long relevantMask(int sq, int[][] dirs) {
+        long mask = 0;
+        for (int[] d : dirs) {
+            int r = (sq >>> 3) + d[0], c = (sq & 7) + d[1];
+            while (r + d[0] >= 0 && r + d[0] < 8 && c + d[1] >= 0 && c + d[1] < 8) {
+                mask |= 1L << (r * 8 + c);
+                r += d[0]; c += d[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void initMagic(int sq, int[][] dirs, long[] masks, long magic, int[] shifts, long[][] tables) {
+        long mask = relevantMask(sq, dirs);
+        int shift = 64 - Long.bitCount(mask);
+        long[] table = new long[1 << (64 - shift)];
+        // carry-rippler로 마스크의 모든 부분집합을 나열
+        long subset = 0;
+        do {
+            long attacks = slide(sq, subset, dirs);
+            int idx = (int) ((subset * magic) >>> shift);
+            if (table[idx] != 0 && table[idx] != attacks) throw new IllegalStateException("bad magic for square " + sq);
+            table[idx] = attacks;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        masks[sq] = mask; shifts[sq] = shift; tables[sq] = table;
+    }
+}
@@ -0,0 +1,153 @@
+import java.lang.management.ManagementFactory;
+
+// --- 규칙 엔진 마이크로 벤치마크 ---
+// 고정된 국면 모음에서 핫 패스마다 처리량(ops/s)과 한 번 호출당 할당량(B/op)을 잰다.
+// JMH는 이름 없는 패키지의 클래스를 벤치마크할 수 없어서 같은 방식(예열 -> 측정, 결과 소비)을 직접 구현했다.
+//   java Bench [예열 ms] [측정 ms] [이름 필터]
+public class Bench {
+    // 고정 국면 모음: 시작, 중반, 캐슬링/앙파상/승진이 걸린 국면, 엔드게임
+    static final String[] CORPUS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4",
+            "8/8/4k3/8/2p5/8/B2K4/8 w - - 0 1",
+    };
+
+    interface Op { long run(int index); }
+
+    private static volatile long sink;   // 결과를 버리지 않게 해서 JIT가 호출을 지우지 못하게 한다
+    private static long warmupNanos, measureNanos;
+    private static String filter;
+
+    public static void main(String[] args) {
+        warmupNanos = (args.length > 0 ? Long.parseLong(args[0]) : 1000) * 1_000_000L;
+        measureNanos = (args.length > 1 ? Long.parseLong(args[1]) : 3000) * 1_000_000L;
+        filter = args.length > 2 ? args[2] : "";
+
+        ChessLogic[] positions = new ChessLogic[CORPUS.length];
+        for (int i = 0; i < CORPUS.length; i++) positions[i] = ChessLogic.fromFen(CORPUS[i]);
+
+        // 국면마다 모든 합법 수를 뽑아 둔 (국면 번호, 수) 목록
+        int[] buffer = new int[ChessLogic.MAX_MOVES];
+        java.util.List<int[]> pairs = new java.util.ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            int n = positions[i].generateLegalMoves(buffer, 0);
+            for (int j = 0; j < n; j++) pairs.add(new int[]{i, buffer[j]});
+        }
+
+        // 저장 파일 형식(saved_game.txt)의 보드 부분
+        String[] savedRows = new String[positions.length];
+        for (int i = 0; i < positions.length; i++) savedRows[i] = toSavedRows(positions[i]);
+
+        // 같은 수순을 반복한 긴 기록 (반복 판정의 최악 경우)
+        ChessLogic shuffled = new ChessLogic();
+        String[] cycle = {"g1f3", "g8f6", "f3g1", "f6g8"};
+        for (int i = 0; i < 200; i++) {
+            String m = cycle[i % 4];
+            int from = (8 - (m.charAt(1) - '0')) * 8 + (m.charAt(0) - 'a');
+            int to = (8 - (m.charAt(3) - '0')) * 8 + (m.charAt(2) - 'a');
+            shuffled.makeMove(shuffled.findMove(from, to, 0));
+        }
+
+        System.out.printf("%-36s %-6s %16s %12s%n", "Benchmark", "Mode", "Score (ops/s)", "Alloc (B/op)");
+        run("isKingInCheck", positions.length, i -> positions[i].isKingInCheck(positions[i].getCurrentPlayer()) ? 1 : 0);
+        run("hasLegalMoves", positions.length, i -> positions[i].hasLegalMoves(positions[i].getCurrentPlayer()) ? 1 : 0);
+        run("simulateMoveAndCheckSafety", pairs.size(), i -> {
+            int[] p = pairs.get(i);
+            int from = Move.from(p[1]), to = Move.to(p[1]);
+            return positions[p[0]].simulateMoveAndCheckSafety(from >>> 3, from & 7, to >>> 3, to & 7) ? 1 : 0;
+        });
+        run("checkThreefoldRepetition", 1, i -> shuffled.checkThreefoldRepetition() ? 1 : 0);
+        run("getPositionKey", positions.length, i -> positions[i].getPositionKey());
+        run("Board.getStateString", positions.length, i -> {
+            ChessLogic l = positions[i];
+            return l.getBoard().getStateString(l.getCurrentPlayer(), l.whiteKingMoved, l.blackKingMoved, l.whiteRookMoved, l.blackRookMoved).length();
+        });
+        ChessLogic target = new ChessLogic();
+        run("loadGame.parseBoard", savedRows.length, i -> parseSavedRows(target, savedRows[i]));
+        run("ChessLogic.setFen", CORPUS.length, i -> { target.setFen(CORPUS[i]); return target.getPositionKey(); });
+        StringBuilder fen = new StringBuilder(128);
+        run("ChessLogic.appendFen", positions.length, i -> { fen.setLength(0); return positions[i].appendFen(fen).length(); });
+        run("selectPiece.legalMoveListing", positions.length, i -> listLegalMovesPerPiece(positions[i]));
+        run("generateLegalMoves", positions.length, i -> positions[i].generateLegalMoves(buffer, 0));
+        run("makeMove+unmakeMove", pairs.size(), i -> {
+            int[] p = pairs.get(i);
+            positions[p[0]].makeMove(p[1]);
+            positions[p[0]].unmakeMove();
+            return p[1];
+        });
+    }
+
+    // MainGame.selectPiece와 같은 방식: 차례가 시작될 때 판정을 한 번 만들고, 자기 기물마다 도착 칸 마스크를 꺼낸다
+    private static long listLegalMovesPerPiece(ChessLogic logic) {
+        PositionStatus status = PositionStatus.of(logic);
+        long total = 0;
+        boolean white = logic.getCurrentPlayer().equals("WHITE");
+        for (int sq = 0; sq < 64; sq++) {
+            Piece p = logic.getPieceAt(sq >>> 3, sq & 7);
+            if (p == null || p.isWhite() != white) continue;
+            total += Long.bitCount(status.getTargets(sq));
+        }
+        return total;
+    }
+
+    // 예전 saved_game.txt 읽기(GameSession.loadLegacy)와 같은 split / substring / createPiece 경로
+    private static long parseSavedRows(ChessLogic logic, String text) {
+        String[] rows = text.split("\n");
+        long placed = 0;
+        for (int row = 0; row < 8; row++) {
+            String[] line = rows[row].split(",");
+            for (int col = 0; col < 8; col++) {
+                if (!line[col].equals("null")) {
+                    logic.setPiece(row, col, logic.createPiece(line[col].startsWith("White"), line[col].substring(5)));
+                    placed++;
+                } else {
+                    logic.setPiece(row, col, null);
+                }
+            }
+        }
+        return placed;
+    }
+
+    private static String toSavedRows(ChessLogic logic) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = logic.getPieceAt(r, c);
+                sb.append(p == null ? "null" : p.getImageName()).append(',');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void run(String name, int size, Op op) {
+        if (!name.contains(filter)) return;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long acc = 0;
+        int index = 0;
+
+        long end = System.nanoTime() + warmupNanos;
+        while (System.nanoTime() < end) {
+            for (int k = 0; k < 256; k++) { acc += op.run(index); if (++index == size) index = 0; }
+        }
+
+        long ops = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        end = start + measureNanos;
+        long now;
+        do {
+            for (int k = 0; k < 256; k++) { acc += op.run(index); if (++index == size) index = 0; }
+            ops += 256;
+        } while ((now = System.nanoTime()) < end);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        sink = acc;
+
+        System.out.printf("%-36s %-6s %16.0f %12.1f%n", name, "thrpt", ops / ((now - start) / 1e9), (double) allocated / ops);
+    }
+}
@@ -0,0 +1,175 @@
+import javax.swing.*;
+import javax.swing.border.LineBorder;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+// --- 체스판 컴포넌트 ---
+// 64개의 JButton 대신 컴포넌트 하나가 칸, 강조 표시, 기물을 한 번의 paintComponent로 그린다.
+// 칸마다 지금 화면에 그려진 상태(기물 + 강조)를 int로 기억해 두고, 바뀐 칸만 repaint(Rectangle) 한다.
+// 칸과 기물은 버퍼 이미지(layer)에 미리 그려 두고, 화면에는 그 이미지와 움직이는 기물만 그린다.
+// 버퍼와 스프라이트는 화면 배율(HiDPI)만큼 큰 해상도로 만들어서 흐려지지 않게 한다.
+class BoardView extends JComponent {
+    interface SquareListener { void squareClicked(int row, int col); }
+
+    // 칸 상태 = 기물 번호 + 1 (하위 4비트, 0 = 빈 칸) | 강조 종류 << 4 | 숨김 플래그
+    static final int NONE = 0, SELECTED = 1, MOVE_TARGET = 2, CAPTURE_TARGET = 3, CHECK = 4;
+    private static final int HIDDEN = 1 << 8;
+
+    private static final Color LIGHT = new Color(240, 230, 210), DARK = new Color(122, 111, 93);
+    private static final Color[] HIGHLIGHT = {null, new Color(100, 200, 100), new Color(220, 220, 100), new Color(200, 100, 100), new Color(255, 80, 80)};
+    private static final String[] NAMES = {
+            "WhitePawn", "WhiteKnight", "WhiteBishop", "WhiteRook", "WhiteQueen", "WhiteKing",
+            "BlackPawn", "BlackKnight", "BlackBishop", "BlackRook", "BlackQueen", "BlackKing"
+    };
+    private static final String[] SYMBOLS = {"♙", "♘", "♗", "♖", "♕", "♔", "♟", "♞", "♝", "♜", "♛", "♚"};
+
+    private final ChessLogic logic;
+    private int squareSize;
+    private Font symbolFont;
+    private final int[] shown = new int[64];   // 마지막으로 그리라고 요청한 상태
+    private final Rectangle dirty = new Rectangle();
+    private BufferedImage layer;               // 정지한 판 (테두리 안쪽, 칸 크기 * 8 * 배율)
+    private double scale = 1;                  // 화면 배율
+    private int pendingSize;                   // 스프라이트를 준비 중인 새 칸 크기
+    private final Runnable spritesReady = () -> { layer = null; repaint(); };   // 정확한 크기의 스프라이트가 늦게 왔을 때
+
+    // 움직이는 중인 기물 (애니메이션용): 기물 번호, 보드 안쪽 기준 좌표
+    private int floatingIndex = -1;
+    private int floatingX, floatingY;
+
+    BoardView(ChessLogic logic, int squareSize, SquareListener listener) {
+        this.logic = logic;
+        this.squareSize = squareSize;
+        symbolFont = new Font("Arial Unicode MS", Font.PLAIN, squareSize / 2);
+        setBorder(new LineBorder(new Color(139, 90, 43), 5));
+        setOpaque(true);
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                Insets in = getInsets();
+                int size = getSquareSize();   // 창 크기가 바뀌면 setSquareSize로 달라진다
+                int c = (e.getX() - in.left) / size, r = (e.getY() - in.top) / size;
+                if (e.getX() >= in.left && e.getY() >= in.top && r < 8 && c < 8) listener.squareClicked(r, c);
+            }
+        });
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        Insets in = getInsets();
+        return new Dimension(squareSize * 8 + in.left + in.right, squareSize * 8 + in.top + in.bottom);
+    }
+
+    // 현재 국면과 강조 상태를 반영한다. 그려진 것과 달라진 칸만 다시 그린다.
+    // targets: 이동 가능한 칸 비트마스크, hiddenSquare: 애니메이션 중이라 비워 둘 칸 (-1 = 없음)
+    void update(int selectedSquare, long targets, int checkSquare, int hiddenSquare) {
+        for (int sq = 0; sq < 64; sq++) {
+            Piece p = logic.getPieceAt(sq >>> 3, sq & 7);
+            int highlight = NONE;
+            if (sq == selectedSquare) highlight = SELECTED;
+            if ((targets & (1L << sq)) != 0) highlight = p != null ? CAPTURE_TARGET : MOVE_TARGET;
+            if (sq == checkSquare) highlight = CHECK;
+            int state = (p == null ? 0 : p.getIndex() + 1) | (highlight << 4) | (sq == hiddenSquare ? HIDDEN : 0);
+            if (state != shown[sq]) {
+                shown[sq] = state;
+                if (layer != null) renderSquare(sq);
+                repaint(squareBounds(sq, dirty));
+            }
+        }
+    }
+
+    // 애니메이션용 떠 있는 기물. index < 0 이면 없앤다. 좌표는 보드 왼쪽 위 칸 기준 픽셀
+    void setFloatingPiece(int index, int x, int y) {
+        if (floatingIndex >= 0) repaint(floatingBounds(dirty));
+        floatingIndex = index; floatingX = x; floatingY = y;
+        if (floatingIndex >= 0) repaint(floatingBounds(dirty));
+    }
+
+    int getSquareSize() { return squareSize; }
+
+    // 칸 크기를 바꾼다. 새 크기의 스프라이트가 백그라운드에서 준비된 뒤에 적용하므로 EDT가 막히지 않는다
+    void setSquareSize(int size) {
+        if (size == squareSize || size == pendingSize) return;
+        pendingSize = size;
+        ResourceManager.preloadImages(spriteSize(size), () -> {
+            if (pendingSize != size) return;
+            pendingSize = 0;
+            squareSize = size;
+            symbolFont = new Font("Arial Unicode MS", Font.PLAIN, size / 2);
+            layer = null;
+            revalidate();
+            repaint();
+        });
+    }
+
+    private int spriteSize(int size) { return (int) Math.round((size - 10) * scale); }
+
+    // 화면에 붙으면 배율을 알 수 있으므로 첫 그리기 전에 배율을 곱한 크기를 준비시킨다 (HiDPI)
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        scale = gc != null ? gc.getDefaultTransform().getScaleX() : 1;
+        ResourceManager.preloadImages(spriteSize(squareSize));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (layer == null) createLayer();
+        Insets in = getInsets();
+        g.drawImage(layer, in.left, in.top, squareSize * 8, squareSize * 8, null);
+        if (floatingIndex >= 0) drawPiece(g, floatingIndex, in.left + floatingX, in.top + floatingY);
+    }
+
+    private void createLayer() {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        scale = gc != null ? gc.getDefaultTransform().getScaleX() : 1;
+        int side = (int) Math.ceil(squareSize * 8 * scale);
+        layer = gc != null ? gc.createCompatibleImage(side, side) : new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        for (int sq = 0; sq < 64; sq++) renderSquare(sq);
+    }
+
+    // 버퍼 이미지의 한 칸을 현재 상태대로 다시 그린다
+    private void renderSquare(int sq) {
+        Graphics2D g = layer.createGraphics();
+        g.scale(scale, scale);
+        int state = shown[sq];
+        int highlight = (state >>> 4) & 15;
+        int r = sq >>> 3, c = sq & 7;
+        int x = c * squareSize, y = r * squareSize;
+        g.setColor(highlight != NONE ? HIGHLIGHT[highlight] : ((r + c) % 2 == 0 ? LIGHT : DARK));
+        g.fillRect(x, y, squareSize, squareSize);
+        if ((state & 15) != 0 && (state & HIDDEN) == 0) {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            drawPiece(g, (state & 15) - 1, x, y);
+        }
+        g.dispose();
+    }
+
+    private void drawPiece(Graphics g, int index, int x, int y) {
+        BufferedImage sprite = ResourceManager.getNearestSprite(NAMES[index], spriteSize(squareSize), spritesReady);
+        if (sprite != null) {
+            g.drawImage(sprite, x + 5, y + 5, squareSize - 10, squareSize - 10, null);
+        } else {
+            g.setFont(symbolFont);
+            g.setColor(index < 6 ? Color.WHITE : Color.BLACK);
+            FontMetrics fm = g.getFontMetrics();
+            String s = SYMBOLS[index];
+            g.drawString(s, x + (squareSize - fm.stringWidth(s)) / 2, y + (squareSize + fm.getAscent() - fm.getDescent()) / 2);
+        }
+    }
+
+    private Rectangle squareBounds(int sq, Rectangle out) {
+        Insets in = getInsets();
+        out.setBounds(in.left + (sq & 7) * squareSize, in.top + (sq >>> 3) * squareSize, squareSize, squareSize);
+        return out;
+    }
+
+    private Rectangle floatingBounds(Rectangle out) {
+        Insets in = getInsets();
+        out.setBounds(in.left + floatingX, in.top + floatingY, squareSize, squareSize);
+        return out;
+    }
+}
@@ -1,29 +1,34 @@
-import java.awt.Point;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 // --- 기물 상속 구조 ---
 abstract class Piece {
+    // 비트보드 인덱스용 기물 종류 번호
+    public static final int PAWN = 0, KNIGHT = 1, BISHOP = 2, ROOK = 3, QUEEN = 4, KING = 5;
+
     protected boolean isWhite;
     protected String type;
-    public Piece(boolean isWhite, String type) { this.isWhite = isWhite; this.type = type; }
+    protected int kind;
+    public Piece(boolean isWhite, String type) { this.isWhite = isWhite; this.type = type; this.kind = kindOf(type); }
     public boolean isWhite() { return isWhite; }
     public String getType() { return type; }
+    public int getKind() { return kind; }
+    // 비트보드 배열 인덱스 (백 0~5, 흑 6~11)
+    public int getIndex() { return (isWhite ? 0 : 6) + kind; }
+    // 기물은 상태가 없으므로 make/unmake에서는 공유 인스턴스를 써서 할당을 피한다
+    private static final Piece[] SHARED = {
+            new Pawn(true), new Knight(true), new Bishop(true), new Rook(true), new Queen(true), new King(true),
+            new Pawn(false), new Knight(false), new Bishop(false), new Rook(false), new Queen(false), new King(false)
+    };
+    static Piece of(boolean white, int kind) { return SHARED[(white ? 0 : 6) + kind]; }
+    static int kindOf(String type) {
+        switch(type) {
+            case "Pawn": return PAWN; case "Knight": return KNIGHT; case "Bishop": return BISHOP;
+            case "Rook": return ROOK; case "Queen": return QUEEN; default: return KING;
+        }
+    }
     public String getImageName() { return (isWhite ? "White" : "Black") + type; }
     public abstract boolean isValidMove(Board board, int startR, int startC, int endR, int endC);
 
-    protected boolean isPathClear(Board board, int startR, int startC, int endR, int endC) {
-        int dr = Integer.compare(endR, startR);
-        int dc = Integer.compare(endC, startC);
-        int currR = startR + dr;
-        int currC = startC + dc;
-        while (currR != endR || currC != endC) {
-            if (board.getPiece(currR, currC) != null) return false;
-            currR += dr; currC += dc;
-        }
-        return true;
-    }
+    // 출발 칸에서 도착 칸까지의 기하 판정은 Attacks 테이블 조회 한 번으로 끝난다
+    protected static long target(int endR, int endC) { return 1L << (endR * 8 + endC); }
 }
 
 class Pawn extends Piece {
@@ -35,68 +40,105 @@ class Pawn extends Piece {
         Piece target = board.getPiece(endR, endC);
         if (dc == 0 && dr == direction && target == null) return true;
         if (dc == 0 && startR == startRow && dr == 2 * direction && target == null) return board.getPiece(startR + direction, startC) == null;
-        if (Math.abs(dc) == 1 && dr == direction && target != null && target.isWhite() != this.isWhite) return true;
+        if ((Attacks.PAWN[isWhite ? 0 : 1][startR * 8 + startC] & target(endR, endC)) != 0) return target != null && target.isWhite() != this.isWhite;
         return false;
     }
 }
 class Rook extends Piece {
     public Rook(boolean isWhite) { super(isWhite, "Rook"); }
     public boolean isValidMove(Board board, int startR, int startC, int endR, int endC) {
-        if (startR != endR && startC != endC) return false;
-        return isPathClear(board, startR, startC, endR, endC);
+        return (Attacks.rook(startR * 8 + startC, board.getOccupied()) & target(endR, endC)) != 0;
     }
 }
 class Knight extends Piece {
     public Knight(boolean isWhite) { super(isWhite, "Knight"); }
     public boolean isValidMove(Board board, int startR, int startC, int endR, int endC) {
-        int dr = Math.abs(endR - startR); int dc = Math.abs(endC - startC);
-        return (dr == 2 && dc == 1) || (dr == 1 && dc == 2);
+        return (Attacks.KNIGHT[startR * 8 + startC] & target(endR, endC)) != 0;
     }
 }
 class Bishop extends Piece {
     public Bishop(boolean isWhite) { super(isWhite, "Bishop"); }
     public boolean isValidMove(Board board, int startR, int startC, int endR, int endC) {
-        if (Math.abs(endR - startR) != Math.abs(endC - startC)) return false;
-        return isPathClear(board, startR, startC, endR, endC);
+        return (Attacks.bishop(startR * 8 + startC, board.getOccupied()) & target(endR, endC)) != 0;
     }
 }
 class Queen extends Piece {
     public Queen(boolean isWhite) { super(isWhite, "Queen"); }
     public boolean isValidMove(Board board, int startR, int startC, int endR, int endC) {
-        boolean straight = (startR == endR || startC == endC);
-        boolean diagonal = (Math.abs(endR - startR) == Math.abs(endC - startC));
-        if (!straight && !diagonal) return false;
-        return isPathClear(board, startR, startC, endR, endC);
+        return (Attacks.queen(startR * 8 + startC, board.getOccupied()) & target(endR, endC)) != 0;
     }
 }
 class King extends Piece {
     public King(boolean isWhite) { super(isWhite, "King"); }
     public boolean isValidMove(Board board, int startR, int startC, int endR, int endC) {
-        int dr = Math.abs(endR - startR); int dc = Math.abs(endC - startC);
-        if (dr <= 1 && dc <= 1) return true;
-        if (dr == 0 && dc == 2) return true;
-        return false;
+        if ((Attacks.KING[startR * 8 + startC] & target(endR, endC)) != 0) return true;
+        return startR == endR && Math.abs(endC - startC) == 2;
     }
 }
 
 // --- 보드 데이터 ---
+// Piece[][] 격자와 함께 64비트 비트보드를 동기화해서 유지한다. 칸 번호는 r * 8 + c (a8 = 0, h1 = 63).
 class Board {
     private Piece[][] grid;
     private final int SIZE = 8;
+    private final long[] pieceBB = new long[12];   // [색 * 6 + 종류]
+    private final long[] colorBB = new long[2];    // [0] 백, [1] 흑
+    private long occupied;
+    private long key;                              // 기물 배치만의 Zobrist 키 (차례/캐슬링/앙파상 제외)
+
     public Board() { grid = new Piece[SIZE][SIZE]; }
-    public void setPiece(int r, int c, Piece p) { grid[r][c] = p; }
+
+    public void setPiece(int r, int c, Piece p) {
+        int sq = r * SIZE + c;
+        long bit = 1L << sq;
+        Piece old = grid[r][c];
+        if (old != null) {
+            pieceBB[old.getIndex()] &= ~bit;
+            colorBB[old.isWhite() ? 0 : 1] &= ~bit;
+            occupied &= ~bit;
+            key ^= Zobrist.PIECE[old.getIndex()][sq];
+        }
+        grid[r][c] = p;
+        if (p != null) {
+            pieceBB[p.getIndex()] |= bit;
+            colorBB[p.isWhite() ? 0 : 1] |= bit;
+            occupied |= bit;
+            key ^= Zobrist.PIECE[p.getIndex()][sq];
+        }
+    }
+    public void setPiece(int sq, Piece p) { setPiece(sq >>> 3, sq & 7, p); }
     public Piece getPiece(int r, int c) { return grid[r][c]; }
+    public Piece getPiece(int sq) { return grid[sq >>> 3][sq & 7]; }
+
+    // 비트보드 조회
+    public long getPieces(boolean white, int kind) { return pieceBB[(white ? 0 : 6) + kind]; }
+    public long getColorOccupancy(boolean white) { return colorBB[white ? 0 : 1]; }
+    public long getOccupied() { return occupied; }
+    public long getKey() { return key; }
+
+    public void copyFrom(Board other) {
+        for (int r = 0; r < SIZE; r++) System.arraycopy(other.grid[r], 0, grid[r], 0, SIZE);
+        System.arraycopy(other.pieceBB, 0, pieceBB, 0, pieceBB.length);
+        colorBB[0] = other.colorBB[0]; colorBB[1] = other.colorBB[1];
+        occupied = other.occupied; key = other.key;
+    }
+
+    public void clear() {
+        for (int r = 0; r < SIZE; r++) for (int c = 0; c < SIZE; c++) grid[r][c] = null;
+        java.util.Arrays.fill(pieceBB, 0L);
+        colorBB[0] = 0L; colorBB[1] = 0L; occupied = 0L; key = 0L;
+    }
 
     public void initialize() {
-        for (int i = 0; i < SIZE; i++) { grid[1][i] = new Pawn(false); grid[6][i] = new Pawn(true); }
+        clear();
+        for (int i = 0; i < SIZE; i++) { setPiece(1, i, new Pawn(false)); setPiece(6, i, new Pawn(true)); }
         setupMainPieces(0, false); setupMainPieces(7, true);
-        for(int r=2; r<6; r++) for(int c=0; c<8; c++) grid[r][c] = null;
     }
     private void setupMainPieces(int row, boolean isWhite) {
-        grid[row][0] = new Rook(isWhite); grid[row][1] = new Knight(isWhite);
-        grid[row][2] = new Bishop(isWhite); grid[row][3] = new Queen(isWhite);
-        grid[row][4] = new King(isWhite); grid[row][5] = new Bishop(isWhite);
-        grid[row][6] = new Knight(isWhite); grid[row][7] = new Rook(isWhite);
+        setPiece(row, 0, new Rook(isWhite)); setPiece(row, 1, new Knight(isWhite));
+        setPiece(row, 2, new Bishop(isWhite)); setPiece(row, 3, new Queen(isWhite));
+        setPiece(row, 4, new King(isWhite)); setPiece(row, 5, new Bishop(isWhite));
+        setPiece(row, 6, new Knight(isWhite)); setPiece(row, 7, new Rook(isWhite));
     }
     public String getStateString(String currentPlayer, boolean wK, boolean bK, boolean[] wR, boolean[] bR) {
         StringBuilder sb = new StringBuilder();
@@ -112,16 +154,54 @@ class Board {
 public class ChessLogic {
     private Board board;
     private String currentPlayer = "WHITE";
-    private List<String> positionHistory = new ArrayList<>();
+    // 국면 기록: 수마다 Zobrist 키 하나. 비가역 수(폰 이동, 잡기) 이후로 지난 반수는 halfmoveClock
+    private long[] keyHistory = new long[1024];
+    private int historyCount = 0;
+    private int halfmoveClock = 0;
+    private int fullmoveNumber = 1;   // 흑이 둘 때마다 1 늘어난다 (FEN의 마지막 칸)
     public boolean whiteKingMoved = false, blackKingMoved = false;
     public boolean[] whiteRookMoved = {false, false}, blackRookMoved = {false, false};
+    private int enPassantSquare = -1;   // 직전 수가 폰 두 칸 전진이면 그 폰이 지나간 칸
+
+    // 한 국면에서 나올 수 있는 수의 최대 개수 (실제 최대는 218)
+    public static final int MAX_MOVES = 256;
+    private final int[] scratchMoves = new int[MAX_MOVES];
+
+    // 되돌리기 스택: 둔 수, 잡힌 기물, 수를 두기 전의 캐슬링 플래그 + 앙파상 칸 + 반수 카운터
+    private int[] undoMoves = new int[1024];
+    private Piece[] undoCaptured = new Piece[1024];
+    private int[] undoState = new int[1024];
+    private int ply = 0;
 
     public ChessLogic() { board = new Board(); initializeGame(); }
 
+    // 탐색용 복사본: 국면과 반복 판정용 기록은 그대로, 되돌리기 스택은 비운 채로 시작한다
+    public ChessLogic(ChessLogic other) {
+        board = new Board();
+        setPosition(other);
+    }
+
+    // other의 국면과 반복 판정용 기록을 가져온다. 되돌리기 스택은 비운다
+    public void setPosition(ChessLogic other) {
+        board.copyFrom(other.board);
+        currentPlayer = other.currentPlayer;
+        whiteKingMoved = other.whiteKingMoved; blackKingMoved = other.blackKingMoved;
+        whiteRookMoved = other.whiteRookMoved.clone(); blackRookMoved = other.blackRookMoved.clone();
+        enPassantSquare = other.enPassantSquare;
+        keyHistory = java.util.Arrays.copyOf(other.keyHistory, other.keyHistory.length);
+        historyCount = other.historyCount;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        ply = 0;
+    }
+
+    Board getBoard() { return board; }
+
     public void initializeGame() {
-        board.initialize(); currentPlayer = "WHITE"; positionHistory.clear();
+        board.initialize(); currentPlayer = "WHITE"; historyCount = 0; halfmoveClock = 0; fullmoveNumber = 1; ply = 0;
         whiteKingMoved = false; blackKingMoved = false;
         whiteRookMoved = new boolean[]{false, false}; blackRookMoved = new boolean[]{false, false};
+        enPassantSquare = -1;
         recordBoardState();
     }
 
@@ -147,64 +227,229 @@ public class ChessLogic {
 
     public boolean isKingInCheck(String player) {
         boolean white = player.equals("WHITE");
-        int kR = -1, kC = -1;
-        for(int r=0; r<8; r++) for(int c=0; c<8; c++) {
-            Piece p = board.getPiece(r, c);
-            if(p instanceof King && p.isWhite() == white) { kR=r; kC=c; break; }
-        }
-        if(kR == -1) return false;
-        for(int r=0; r<8; r++) for(int c=0; c<8; c++) {
-            Piece p = board.getPiece(r, c);
-            if(p != null && p.isWhite() != white && p.isValidMove(board, r, c, kR, kC)) return true;
-        }
-        return false;
+        long king = board.getPieces(white, Piece.KING);
+        if(king == 0) return false;
+        return Attacks.isAttacked(board, Long.numberOfTrailingZeros(king), !white);
     }
 
     public boolean hasLegalMoves(String player) {
         boolean white = player.equals("WHITE");
-        for(int r1=0; r1<8; r1++) for(int c1=0; c1<8; c1++) {
-            Piece p = board.getPiece(r1, c1);
-            if(p != null && p.isWhite() == white) {
-                for(int r2=0; r2<8; r2++) for(int c2=0; c2<8; c2++) {
-                    if(checkRules(r1, c1, r2, c2, p) && simulateMoveAndCheckSafety(r1, c1, r2, c2)) return true;
-                }
-            }
-        }
+        int count = MoveGenerator.generate(board, white, getCastlingRights(), enPassantSquare, scratchMoves, 0);
+        for(int i=0; i<count; i++) if(isLegal(scratchMoves[i])) return true;
         return false;
     }
 
-    public void executeMove(int r1, int c1, int r2, int c2) {
-        Piece p = board.getPiece(r1, c1);
-        board.setPiece(r2, c2, p); board.setPiece(r1, c1, null);
-        if(p instanceof King) { if(p.isWhite()) whiteKingMoved=true; else blackKingMoved=true; }
-        if(p instanceof Rook) {
-            if(p.isWhite()) { if(r1==7&&c1==0) whiteRookMoved[0]=true; if(r1==7&&c1==7) whiteRookMoved[1]=true; }
-            else { if(r1==0&&c1==0) blackRookMoved[0]=true; if(r1==0&&c1==7) blackRookMoved[1]=true; }
+    // 현재 차례의 합법 수를 moves[start]부터 채우고 끝 인덱스를 돌려준다
+    public int generateLegalMoves(int[] moves, int start) {
+        int end = MoveGenerator.generate(board, currentPlayer.equals("WHITE"), getCastlingRights(), enPassantSquare, moves, start);
+        int count = start;
+        for(int i=start; i<end; i++) if(isLegal(moves[i])) moves[count++] = moves[i];
+        return count;
+    }
+
+    // 자기 킹이 잡히는지 보지 않은 수들. 몇 개만 골라 isLegalMove로 거를 때 (SAN 읽기) 전부 거르는 것보다 싸다
+    public int generatePseudoMoves(int[] moves, int start) {
+        return MoveGenerator.generate(board, currentPlayer.equals("WHITE"), getCastlingRights(), enPassantSquare, moves, start);
+    }
+
+    public boolean isLegalMove(int move) { return isLegal(move); }
+
+    // 잡는 수와 승진 수만 (탐색의 정지 탐색용)
+    public int generateLegalCaptures(int[] moves, int start) {
+        int end = MoveGenerator.generate(board, currentPlayer.equals("WHITE"), getCastlingRights(), enPassantSquare, moves, start);
+        int count = start;
+        for(int i=start; i<end; i++) {
+            int m = moves[i];
+            if((Move.isCapture(m) || Move.promotion(m) != 0) && isLegal(m)) moves[count++] = m;
+        }
+        return count;
+    }
+
+    // 자기 킹을 체크에 남기지 않는 수인지 (보드를 잠깐 바꿨다가 되돌린다)
+    private boolean isLegal(int move) {
+        int from = Move.from(move), to = Move.to(move), capSq = Move.captureSquare(move);
+        Piece p = board.getPiece(from);
+        Piece captured = board.getPiece(capSq);
+        board.setPiece(capSq, null);
+        board.setPiece(to, p); board.setPiece(from, null);
+        long king = board.getPieces(p.isWhite(), Piece.KING);
+        boolean safe = king == 0 || !Attacks.isAttacked(board, Long.numberOfTrailingZeros(king), !p.isWhite());
+        board.setPiece(from, p); board.setPiece(to, null);
+        board.setPiece(capSq, captured);
+        return safe;
+    }
+
+    public int getCastlingRights() {
+        int rights = 0;
+        if(!whiteKingMoved && !whiteRookMoved[1]) rights |= MoveGenerator.WHITE_KINGSIDE;
+        if(!whiteKingMoved && !whiteRookMoved[0]) rights |= MoveGenerator.WHITE_QUEENSIDE;
+        if(!blackKingMoved && !blackRookMoved[1]) rights |= MoveGenerator.BLACK_KINGSIDE;
+        if(!blackKingMoved && !blackRookMoved[0]) rights |= MoveGenerator.BLACK_QUEENSIDE;
+        return rights;
+    }
+    // 캐슬링 권리 비트로 킹 / 룩 이동 플래그를 맞춘다 (저장 파일, FEN 읽기용).
+    // 킹이나 룩이 제자리에 없는 권리는 버린다 (없는 룩으로 캐슬링하거나 Zobrist 키가 틀리지 않도록). 기물을 먼저 놓고 부른다
+    public void setCastlingRights(int rights) {
+        rights &= castlingRightsFor(board.getPieces(true, Piece.KING) & 1L << 60 | board.getPieces(true, Piece.ROOK) & (1L << 56 | 1L << 63)
+                | board.getPieces(false, Piece.KING) & 1L << 4 | board.getPieces(false, Piece.ROOK) & (1L | 1L << 7));
+        whiteKingMoved = (rights & (MoveGenerator.WHITE_KINGSIDE | MoveGenerator.WHITE_QUEENSIDE)) == 0;
+        whiteRookMoved[1] = (rights & MoveGenerator.WHITE_KINGSIDE) == 0;
+        whiteRookMoved[0] = (rights & MoveGenerator.WHITE_QUEENSIDE) == 0;
+        blackKingMoved = (rights & (MoveGenerator.BLACK_KINGSIDE | MoveGenerator.BLACK_QUEENSIDE)) == 0;
+        blackRookMoved[1] = (rights & MoveGenerator.BLACK_KINGSIDE) == 0;
+        blackRookMoved[0] = (rights & MoveGenerator.BLACK_QUEENSIDE) == 0;
+    }
+    // 제자리에 있는 제 킹 / 룩의 칸 비트(칸 번호 = 비트)로 가질 수 있는 권리
+    private static int castlingRightsFor(long homes) {
+        int rights = 0;
+        if((homes & (1L << 60 | 1L << 63)) == (1L << 60 | 1L << 63)) rights |= MoveGenerator.WHITE_KINGSIDE;
+        if((homes & (1L << 60 | 1L << 56)) == (1L << 60 | 1L << 56)) rights |= MoveGenerator.WHITE_QUEENSIDE;
+        if((homes & (1L << 4 | 1L << 7)) == (1L << 4 | 1L << 7)) rights |= MoveGenerator.BLACK_KINGSIDE;
+        if((homes & (1L << 4 | 1L)) == (1L << 4 | 1L)) rights |= MoveGenerator.BLACK_QUEENSIDE;
+        return rights;
+    }
+    public int getEnPassantSquare() { return enPassantSquare; }
+    public void setEnPassantSquare(int sq) { enPassantSquare = sq; }
+
+    // from -> to (승진이면 기물 종류까지) 에 해당하는 합법 수. 없으면 0
+    public int findMove(int from, int to, int promotion) {
+        int count = generateLegalMoves(scratchMoves, 0);
+        for(int i=0; i<count; i++) {
+            int m = scratchMoves[i];
+            if(Move.from(m) == from && Move.to(m) == to && Move.promotion(m) == promotion) return m;
         }
+        return 0;
+    }
+
+    // 수를 두고 차례를 넘긴다. 보드, 캐슬링 플래그, 앙파상 칸, 기록을 모두 갱신하고 되돌릴 정보를 스택에 쌓는다
+    public void makeMove(int move) {
+        if(ply == undoMoves.length) growUndoStack();
+        int from = Move.from(move), to = Move.to(move), capSq = Move.captureSquare(move);
+        Piece p = board.getPiece(from);
+        undoMoves[ply] = move;
+        undoCaptured[ply] = board.getPiece(capSq);
+        undoState[ply] = packCastlingFlags() | ((enPassantSquare + 1) << 6) | (halfmoveClock << 13);
+        ply++;
+        halfmoveClock = (p instanceof Pawn || undoCaptured[ply - 1] != null) ? 0 : halfmoveClock + 1;
+
+        board.setPiece(capSq, null);
+        board.setPiece(from, null);
+        board.setPiece(to, Move.promotion(move) != 0 ? Piece.of(p.isWhite(), Move.promotion(move)) : p);
+        if(Move.isCastle(move)) {
+            boolean kingSide = to > from;
+            int rookFrom = kingSide ? from + 3 : from - 4, rookTo = kingSide ? from + 1 : from - 1;
+            board.setPiece(rookTo, board.getPiece(rookFrom)); board.setPiece(rookFrom, null);
+        }
+        if(p instanceof King) { if(p.isWhite()) whiteKingMoved=true; else blackKingMoved=true; }
+        // 룩이 움직이거나 구석에서 잡히면 그쪽 캐슬링 권리가 사라진다
+        markRookMoved(from); markRookMoved(to);
+        enPassantSquare = Move.isDoublePush(move) ? (from + to) / 2 : -1;
+        if(!p.isWhite()) fullmoveNumber++;
+        switchTurn();
         recordBoardState();
     }
 
-    public void handleCastling(int oldR, int oldC, int newR, int newC) {
-        if(Math.abs(newC - oldC) == 2) {
-            int rookCol = (newC > oldC) ? 7 : 0;
-            int rookTarget = (newC > oldC) ? 5 : 3;
-            Piece rook = board.getPiece(newR, rookCol);
-            board.setPiece(newR, rookTarget, rook); board.setPiece(newR, rookCol, null);
+    // 마지막 수를 무른다 (O(1))
+    public void unmakeMove() {
+        int move = undoMoves[--ply];
+        int from = Move.from(move), to = Move.to(move);
+        historyCount--;
+        switchTurn();
+        if(currentPlayer.equals("BLACK")) fullmoveNumber--;
+
+        Piece p = board.getPiece(to);
+        if(Move.promotion(move) != 0) p = Piece.of(p.isWhite(), Piece.PAWN);
+        board.setPiece(to, null);
+        board.setPiece(from, p);
+        if(undoCaptured[ply] != null) board.setPiece(Move.captureSquare(move), undoCaptured[ply]);
+        undoCaptured[ply] = null;
+        if(Move.isCastle(move)) {
+            boolean kingSide = to > from;
+            int rookFrom = kingSide ? from + 3 : from - 4, rookTo = kingSide ? from + 1 : from - 1;
+            board.setPiece(rookFrom, board.getPiece(rookTo)); board.setPiece(rookTo, null);
         }
+        unpackCastlingFlags(undoState[ply]);
+        enPassantSquare = ((undoState[ply] >>> 6) & 127) - 1;
+        halfmoveClock = undoState[ply] >>> 13;
     }
 
-    public void promotePawn(int r, int c, Piece newPiece) { board.setPiece(r, c, newPiece); }
-    public void recordBoardState() { positionHistory.add(board.getStateString(currentPlayer, whiteKingMoved, blackKingMoved, whiteRookMoved, blackRookMoved)); }
+    public boolean canUndo() { return ply > 0; }
+    public int getPly() { return ply; }
+    public int getLastMove() { return ply > 0 ? undoMoves[ply - 1] : 0; }
+    // 되돌리기 스택에 있는 index번째 수 (0 = 가장 먼저 둔 수, index < getPly())
+    public int getMoveAt(int index) { return undoMoves[index]; }
+
+    private void markRookMoved(int sq) {
+        if(sq==56) whiteRookMoved[0]=true; if(sq==63) whiteRookMoved[1]=true;
+        if(sq==0) blackRookMoved[0]=true; if(sq==7) blackRookMoved[1]=true;
+    }
+    private int packCastlingFlags() {
+        return (whiteKingMoved ? 1 : 0) | (blackKingMoved ? 2 : 0) | (whiteRookMoved[0] ? 4 : 0) | (whiteRookMoved[1] ? 8 : 0)
+                | (blackRookMoved[0] ? 16 : 0) | (blackRookMoved[1] ? 32 : 0);
+    }
+    private void unpackCastlingFlags(int f) {
+        whiteKingMoved = (f & 1) != 0; blackKingMoved = (f & 2) != 0;
+        whiteRookMoved[0] = (f & 4) != 0; whiteRookMoved[1] = (f & 8) != 0;
+        blackRookMoved[0] = (f & 16) != 0; blackRookMoved[1] = (f & 32) != 0;
+    }
+    private void growUndoStack() {
+        undoMoves = java.util.Arrays.copyOf(undoMoves, ply * 2);
+        undoCaptured = java.util.Arrays.copyOf(undoCaptured, ply * 2);
+        undoState = java.util.Arrays.copyOf(undoState, ply * 2);
+    }
+
+    // 현재 국면 전체의 Zobrist 키 (기물 배치 + 차례 + 캐슬링 권리 + 실제로 잡을 수 있는 앙파상 칸)
+    public long getPositionKey() {
+        long k = board.getKey() ^ Zobrist.CASTLING[getCastlingRights()];
+        boolean white = currentPlayer.equals("WHITE");
+        if(!white) k ^= Zobrist.BLACK_TO_MOVE;
+        if(enPassantSquare >= 0 && (Attacks.PAWN[white ? 1 : 0][enPassantSquare] & board.getPieces(white, Piece.PAWN)) != 0) {
+            k ^= Zobrist.EN_PASSANT_FILE[enPassantSquare & 7];
+        }
+        return k;
+    }
+    public int getHalfmoveClock() { return halfmoveClock; }
+    public void setHalfmoveClock(int n) { halfmoveClock = n; }
+    public int getFullmoveNumber() { return fullmoveNumber; }
+
+    public void recordBoardState() {
+        if(historyCount == keyHistory.length) keyHistory = java.util.Arrays.copyOf(keyHistory, historyCount * 2);
+        keyHistory[historyCount++] = getPositionKey();
+    }
+    // 불러온 국면처럼 이전 수를 모를 때 기록을 현재 국면 하나로 다시 시작한다
+    public void resetHistory() {
+        historyCount = 0; halfmoveClock = 0; ply = 0;
+        recordBoardState();
+    }
+    // 탐색용: 현재 국면이 이전에 한 번이라도 나왔으면 무승부로 본다
+    public boolean isRepetition() {
+        long current = keyHistory[historyCount - 1];
+        int oldest = Math.max(0, historyCount - 1 - halfmoveClock);
+        for(int i = historyCount - 3; i >= oldest; i -= 2) if(keyHistory[i] == current) return true;
+        return false;
+    }
+    // 같은 쪽 차례인 국면만, 마지막 비가역 수까지만 거슬러 올라가며 비교한다
     public boolean checkThreefoldRepetition() {
-        if(positionHistory.isEmpty()) return false;
-        return Collections.frequency(positionHistory, positionHistory.get(positionHistory.size()-1)) >= 3;
+        if(historyCount == 0) return false;
+        long current = keyHistory[historyCount - 1];
+        int oldest = Math.max(0, historyCount - 1 - halfmoveClock);
+        int count = 1;
+        for(int i = historyCount - 3; i >= oldest; i -= 2) {
+            if(keyHistory[i] == current && ++count >= 3) return true;
+        }
+        return false;
     }
     public boolean checkInsufficientMaterial() {
-        List<String> pieces = new ArrayList<>();
-        for(int r=0; r<8; r++) for(int c=0; c<8; c++) if(board.getPiece(r, c) != null) pieces.add(board.getPiece(r, c).getType());
-        if(pieces.size() <= 2) return true;
-        if(pieces.size() == 3) for(String t : pieces) if(t.equals("Pawn") || t.equals("Rook") || t.equals("Queen")) return false;
-        return pieces.size() == 3;
+        int count = Long.bitCount(board.getOccupied());
+        if(count <= 2) return true;
+        if(count != 3) return false;
+        // 킹 2개 + 나이트/비숍 1개만 남은 경우
+        long heavy = 0;
+        for(int side = 0; side < 2; side++) {
+            boolean w = side == 0;
+            heavy |= board.getPieces(w, Piece.PAWN) | board.getPieces(w, Piece.ROOK) | board.getPieces(w, Piece.QUEEN);
+        }
+        return heavy == 0;
     }
     public Piece createPiece(boolean isWhite, String type) {
         switch(type) {
@@ -214,4 +459,172 @@ public class ChessLogic {
         }
     }
     public void setPiece(int r, int c, Piece p) { board.setPiece(r, c, p); }
-}
\ No newline at end of file
+
+    // --- FEN ---
+    // 정규식이나 중간 문자열 없이 CharSequence를 한 글자씩 읽는다 (String, StringBuilder, CharBuffer 모두 된다.
+    // 바이트로 읽은 대량 목록은 US_ASCII.decode로 CharBuffer를 만들어 넘기면 된다).
+    // 뒤의 두 칸(반수 카운터, 수 번호)은 없어도 되고 그때는 0, 1로 본다.
+    public static ChessLogic fromFen(CharSequence fen) {
+        ChessLogic logic = new ChessLogic();
+        logic.setFen(fen);
+        return logic;
+    }
+
+    // 형식이 틀리면 IllegalArgumentException을 던지고 국면은 그대로 둔다. 되돌리기 스택과 반복 기록은 이 국면부터 다시 시작한다
+    public void setFen(CharSequence fen) {
+        int n = fen.length();
+        int i = skipSpaces(fen, 0);
+        int placement = i;
+        i = scanPlacement(fen, i, false);
+
+        i = expectSpace(fen, i);
+        if(i >= n || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) throw fenError(fen, "차례는 w 또는 b");
+        boolean white = fen.charAt(i++) == 'w';
+
+        i = expectSpace(fen, i);
+        int rights = 0;
+        if(i < n && fen.charAt(i) == '-') i++;
+        else {
+            int start = i;
+            for(; i < n && fen.charAt(i) != ' '; i++) {
+                int bit = "KQkq".indexOf(fen.charAt(i));
+                if(bit < 0) throw fenError(fen, "캐슬링 칸에 알 수 없는 글자");
+                if((rights & (1 << bit)) != 0) throw fenError(fen, "캐슬링 글자가 겹친다");
+                rights |= 1 << bit;   // K, Q, k, q 순서가 MoveGenerator의 비트 순서와 같다
+            }
+            if(i == start) throw fenError(fen, "캐슬링 칸이 비었다");
+            if((rights & ~castlingRightsFor(homeSquares(fen, placement))) != 0) throw fenError(fen, "캐슬링 권리의 킹이나 룩이 제자리에 없다");
+        }
+
+        i = expectSpace(fen, i);
+        int ep = -1;
+        if(i < n && fen.charAt(i) == '-') i++;
+        else {
+            if(i + 1 >= n) throw fenError(fen, "앙파상 칸이 잘렸다");
+            int file = fen.charAt(i) - 'a', rank = fen.charAt(i + 1) - '1';
+            if(file < 0 || file > 7 || rank != (white ? 5 : 2)) throw fenError(fen, "앙파상 칸은 백 차례면 6행, 흑 차례면 3행");
+            ep = (7 - rank) * 8 + file;
+            i += 2;
+        }
+
+        int halfmove = 0, fullmove = 1;
+        i = skipSpaces(fen, i);
+        if(i < n) {
+            int end = scanNumber(fen, i);
+            halfmove = parseNumber(fen, i, end);
+            i = skipSpaces(fen, end);
+            if(i < n) {
+                end = scanNumber(fen, i);
+                fullmove = Math.max(1, parseNumber(fen, i, end));
+                i = skipSpaces(fen, end);
+            }
+        }
+        if(i < n) throw fenError(fen, "끝에 남는 글자");
+
+        // 여기까지 오면 형식이 맞으므로 국면을 바꾼다
+        board.clear();
+        scanPlacement(fen, placement, true);
+        currentPlayer = white ? "WHITE" : "BLACK";
+        setCastlingRights(rights);
+        enPassantSquare = ep;
+        resetHistory();
+        halfmoveClock = halfmove;
+        fullmoveNumber = fullmove;
+    }
+
+    // 기물 배치 칸을 읽는다. apply가 false면 확인만 한다. 배치 칸 다음 위치를 돌려준다.
+    // 킹은 편마다 하나, 폰은 1행과 8행에 있을 수 없다
+    private int scanPlacement(CharSequence fen, int i, boolean apply) {
+        int n = fen.length(), r = 0, c = 0, whiteKings = 0, blackKings = 0;
+        for(; i < n; i++) {
+            char ch = fen.charAt(i);
+            if(ch == ' ') break;
+            if(ch == '/') {
+                if(c != 8 || ++r > 7) throw fenError(fen, "행마다 8칸, 모두 8행");
+                c = 0;
+            } else if(ch >= '1' && ch <= '8') {
+                c += ch - '0';
+                if(c > 8) throw fenError(fen, "한 행이 8칸을 넘는다");
+            } else {
+                int kind = FEN_KINDS.indexOf(ch | 0x20);
+                if(kind < 0) throw fenError(fen, "알 수 없는 기물 '" + ch + "'");
+                if(c > 7) throw fenError(fen, "한 행이 8칸을 넘는다");
+                if(kind == Piece.PAWN && (r == 0 || r == 7)) throw fenError(fen, "폰이 1행이나 8행에 있다");
+                if(kind == Piece.KING) { if(ch < 'a') whiteKings++; else blackKings++; }
+                if(apply) board.setPiece(r * 8 + c, Piece.of(ch < 'a', kind));
+                c++;
+            }
+        }
+        if(r != 7 || c != 8) throw fenError(fen, "행마다 8칸, 모두 8행");
+        if(whiteKings != 1 || blackKings != 1) throw fenError(fen, "킹은 편마다 하나");
+        return i;
+    }
+
+    // 확인을 마친 배치 칸에서 캐슬링 자리(e1, a1, h1, e8, a8, h8)에 제 킹 / 룩이 있는 칸의 비트
+    private static long homeSquares(CharSequence fen, int i) {
+        long homes = 0;
+        for(int sq = 0; i < fen.length() && fen.charAt(i) != ' '; i++) {
+            char ch = fen.charAt(i);
+            if(ch == '/') continue;
+            if(ch >= '1' && ch <= '8') { sq += ch - '0'; continue; }
+            if(ch == (sq < 8 ? 'k' : 'K') && (sq == 4 || sq == 60)
+                    || ch == (sq < 8 ? 'r' : 'R') && (sq == 0 || sq == 7 || sq == 56 || sq == 63)) homes |= 1L << sq;
+            sq++;
+        }
+        return homes;
+    }
+
+    private static final String FEN_KINDS = "pnbrqk";   // Piece.PAWN ~ Piece.KING 순서
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while(i < fen.length() && fen.charAt(i) == ' ') i++;
+        return i;
+    }
+    private static int expectSpace(CharSequence fen, int i) {
+        if(i >= fen.length() || fen.charAt(i) != ' ') throw fenError(fen, "칸 사이에는 공백");
+        return skipSpaces(fen, i);
+    }
+    private static int scanNumber(CharSequence fen, int i) {
+        while(i < fen.length() && fen.charAt(i) != ' ') i++;
+        return i;
+    }
+    private static int parseNumber(CharSequence fen, int start, int end) {
+        if(end - start > 6) throw fenError(fen, "수가 너무 크다");
+        int v = 0;
+        for(int i = start; i < end; i++) {
+            char ch = fen.charAt(i);
+            if(ch < '0' || ch > '9') throw fenError(fen, "숫자가 아니다");
+            v = v * 10 + (ch - '0');
+        }
+        return v;
+    }
+    private static IllegalArgumentException fenError(CharSequence fen, String reason) {
+        return new IllegalArgumentException("잘못된 FEN (" + reason + "): " + fen);
+    }
+
+    public String toFen() { return appendFen(new StringBuilder(90)).toString(); }
+
+    // 여러 국면을 한 버퍼에 이어 쓸 때 중간 문자열을 만들지 않도록
+    public StringBuilder appendFen(StringBuilder sb) {
+        for(int r = 0; r < 8; r++) {
+            int empty = 0;
+            for(int c = 0; c < 8; c++) {
+                Piece p = board.getPiece(r, c);
+                if(p == null) { empty++; continue; }
+                if(empty > 0) { sb.append((char) ('0' + empty)); empty = 0; }
+                char ch = FEN_KINDS.charAt(p.getKind());
+                sb.append(p.isWhite() ? (char) (ch - 0x20) : ch);
+            }
+            if(empty > 0) sb.append((char) ('0' + empty));
+            if(r < 7) sb.append('/');
+        }
+        sb.append(currentPlayer.equals("WHITE") ? " w " : " b ");
+        int rights = getCastlingRights();
+        if(rights == 0) sb.append('-');
+        for(int bit = 0; bit < 4; bit++) if((rights & (1 << bit)) != 0) sb.append("KQkq".charAt(bit));
+        sb.append(' ');
+        if(enPassantSquare < 0) sb.append('-');
+        else sb.append((char) ('a' + (enPassantSquare & 7))).append((char) ('8' - (enPassantSquare >>> 3)));
+        return sb.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+    }
+}
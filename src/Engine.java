@@ -0,0 +1,193 @@
+// --- 컴퓨터 상대 (탐색 엔진) ---
+// 반복 심화(iterative deepening) + negamax 알파-베타 + 잡는 수만 보는 정지 탐색.
+// 탐색 중에는 미리 만들어 둔 배열만 쓰고 makeMove/unmakeMove로 국면을 오가므로 노드마다 할당이 없다.
+// 탐색 결과는 TranspositionTable에 남겨서 다음 반복, 다음 수에서 다시 쓴다.
+class Engine {
+    static final int MATE = 30000;
+    private static final int INF = 32000;
+    private static final int MAX_PLY = 64;
+
+    private final ChessLogic logic;
+    private final TranspositionTable table;
+    private final int[][] moves = new int[MAX_PLY + 1][ChessLogic.MAX_MOVES];
+    private final int[][] orderScores = new int[MAX_PLY + 1][ChessLogic.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+
+    private volatile boolean stopped;
+    private long deadline;
+    private long nodes;
+    private int rootBestMove;
+    private int completedDepth;
+    private int lastScore;
+
+    // 넘겨받은 국면은 건드리지 않고 복사본에서 탐색한다
+    Engine(ChessLogic position, TranspositionTable table) {
+        logic = new ChessLogic(position);
+        this.table = table;
+    }
+
+    // 남은 시간(초)의 1/30 정도를 한 수에 쓴다
+    static long budgetFor(int remainingSeconds) {
+        return Math.max(200, Math.min(10_000, remainingSeconds * 1000L / 30));
+    }
+
+    // 시간 안에 끝난 가장 깊은 반복의 최선 수. 둘 수 있는 수가 없으면 0
+    int findBestMove(long budgetMillis, int maxDepth) { return findBestMove(budgetMillis, maxDepth, 1); }
+
+    // startDepth: 병렬 탐색의 보조 스레드는 서로 다른 깊이부터 시작해서 같은 일을 반복하지 않게 한다
+    int findBestMove(long budgetMillis, int maxDepth, int startDepth) {
+        long start = System.nanoTime();
+        deadline = start + budgetMillis * 1_000_000L;
+        nodes = 0;   // stopped는 되돌리지 않는다: 탐색 전에 온 stop도 지킨다 (Engine은 탐색마다 새로 만든다)
+        completedDepth = 0;
+        int best = 0;
+        for (int[] k : killers) { k[0] = 0; k[1] = 0; }
+        for (int depth = startDepth; depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            int score = searchRoot(depth, best);
+            if (stopped && best != 0) break;
+            best = rootBestMove;
+            lastScore = score;
+            completedDepth = depth;
+            if (Math.abs(score) >= MATE - MAX_PLY) break;
+            // 다음 반복은 지금까지의 몇 배가 걸리므로 절반이 넘었으면 시작하지 않는다
+            if ((System.nanoTime() - start) * 2 > budgetMillis * 1_000_000L) break;
+        }
+        return best;
+    }
+
+    void stop() { stopped = true; }
+    long getNodes() { return nodes; }
+    int getCompletedDepth() { return completedDepth; }
+    int getLastScore() { return lastScore; }
+
+    private int searchRoot(int depth, int previousBest) {
+        int[] list = moves[0];
+        int count = logic.generateLegalMoves(list, 0);
+        if (count == 0) { rootBestMove = 0; return logic.isKingInCheck(logic.getCurrentPlayer()) ? -MATE : 0; }
+        scoreMoves(0, count, previousBest);
+        int alpha = -INF;
+        rootBestMove = list[0];
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(0, i, count);
+            logic.makeMove(move);
+            int score = -negamax(depth - 1, -INF, -alpha, 1);
+            logic.unmakeMove();
+            if (stopped) break;
+            if (score > alpha) { alpha = score; rootBestMove = move; }
+        }
+        if (!stopped) table.store(logic.getPositionKey(), rootBestMove, toTable(alpha, 0), depth, TranspositionTable.EXACT);
+        return alpha;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 2047) == 0 && System.nanoTime() > deadline) stopped = true;
+        if (stopped) return 0;
+        if (logic.isRepetition() || logic.getHalfmoveClock() >= 100 || logic.checkInsufficientMaterial()) return 0;
+        if (ply >= MAX_PLY) return Evaluation.evaluate(logic.getBoard(), logic.getCurrentPlayer().equals("WHITE"));
+
+        boolean inCheck = logic.isKingInCheck(logic.getCurrentPlayer());
+        if (inCheck) depth++;   // 체크는 한 수 더 본다
+        if (depth <= 0) return quiesce(alpha, beta, ply);
+
+        long key = logic.getPositionKey();
+        long entry = table.probe(key);
+        int hashMove = 0;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) return score;
+                if (bound == TranspositionTable.LOWER && score >= beta) return score;
+                if (bound == TranspositionTable.UPPER && score <= alpha) return score;
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = logic.generateLegalMoves(list, 0);
+        if (count == 0) return inCheck ? -MATE + ply : 0;
+        scoreMoves(ply, count, hashMove);
+
+        int originalAlpha = alpha;
+        int bestMove = 0;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(ply, i, count);
+            logic.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            logic.unmakeMove();
+            if (stopped) return 0;
+            if (score >= beta) {
+                if (!Move.isCapture(move) && killers[ply][0] != move) { killers[ply][1] = killers[ply][0]; killers[ply][0] = move; }
+                table.store(key, move, toTable(beta, ply), depth, TranspositionTable.LOWER);
+                return beta;
+            }
+            if (score > alpha) { alpha = score; bestMove = move; }
+        }
+        table.store(key, bestMove, toTable(alpha, ply), depth,
+                alpha > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER);
+        return alpha;
+    }
+
+    // 메이트 점수는 루트 기준 거리로 되어 있어서, 표에는 이 국면 기준 거리로 바꿔 넣는다
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score + ply;
+        if (score <= -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score - ply;
+        if (score <= -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        if ((++nodes & 2047) == 0 && System.nanoTime() > deadline) stopped = true;
+        if (stopped) return 0;
+        int standPat = Evaluation.evaluate(logic.getBoard(), logic.getCurrentPlayer().equals("WHITE"));
+        if (standPat >= beta || ply >= MAX_PLY) return standPat;
+        if (standPat > alpha) alpha = standPat;
+
+        int[] list = moves[ply];
+        int count = logic.generateLegalCaptures(list, 0);
+        scoreMoves(ply, count, 0);
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(ply, i, count);
+            logic.makeMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            logic.unmakeMove();
+            if (stopped) return 0;
+            if (score >= beta) return beta;
+            if (score > alpha) alpha = score;
+        }
+        return alpha;
+    }
+
+    // 정렬 점수: 이전 최선 수 > 잡는 수(MVV-LVA) / 승진 > 킬러 수 > 나머지
+    private void scoreMoves(int ply, int count, int bestMove) {
+        int[] list = moves[ply], scores = orderScores[ply];
+        Board board = logic.getBoard();
+        for (int i = 0; i < count; i++) {
+            int m = list[i];
+            int score = 0;
+            if (m == bestMove) score = 1_000_000;
+            else if (Move.isCapture(m) || Move.promotion(m) != 0) {
+                Piece victim = board.getPiece(Move.captureSquare(m));
+                int victimValue = victim == null ? 0 : Evaluation.VALUE[victim.getKind()];
+                score = 100_000 + victimValue * 10 - board.getPiece(Move.from(m)).getKind() + Evaluation.VALUE[Move.promotion(m) == 0 ? Piece.KING : Move.promotion(m)];
+            }
+            else if (m == killers[ply][0]) score = 90_000;
+            else if (m == killers[ply][1]) score = 80_000;
+            scores[i] = score;
+        }
+    }
+
+    // 남은 수 중 점수가 가장 높은 것을 i 자리로 옮긴다 (선택 정렬 한 단계)
+    private int pickNext(int ply, int i, int count) {
+        int[] list = moves[ply], scores = orderScores[ply];
+        int best = i;
+        for (int j = i + 1; j < count; j++) if (scores[j] > scores[best]) best = j;
+        int m = list[best]; list[best] = list[i]; list[i] = m;
+        int s = scores[best]; scores[best] = scores[i]; scores[i] = s;
+        return m;
+    }
+}
@@ -0,0 +1,103 @@
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+// --- 대국 서버 클라이언트 ---
+// GameServer와 줄 단위 프로토콜로 이야기한다. 보내기는 부른 스레드에서 바로, 받기는 가상 스레드 하나가 읽어서 Listener를 부른다.
+// Listener는 그 읽기 스레드에서 불리므로 화면 쪽은 EDT로 넘겨서 써야 한다.
+final class GameClient implements Closeable {
+    interface Listener {
+        void gameStarted(int id, String[] moves);   // NEW / JOIN의 응답. moves는 지금까지 둔 수
+        void moved(int id, int ply, String move, long whiteMillis, long blackMillis);
+        void undone(int id, int ply, long whiteMillis, long blackMillis);
+        void ended(int id, int result, String reason);
+        void error(String message);
+        void disconnected();
+    }
+
+    private final SocketChannel channel;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile boolean closed;
+
+    // address는 GameServer.address와 같은 형식 ("5555", "unix:/tmp/chess.sock")
+    GameClient(String address) throws IOException {
+        SocketAddress addr = GameServer.address(address);
+        boolean unix = addr instanceof UnixDomainSocketAddress;
+        channel = unix ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+        channel.connect(addr);
+        if (!unix) channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    }
+
+    // 받기를 시작한다. 한 번만 부른다
+    void start(Listener listener) {
+        Thread.ofVirtual().name("game-client").start(() -> read(listener));
+    }
+
+    void newGame(long clockMillis, long incrementMillis) { send("NEW " + clockMillis + " " + incrementMillis); }
+    void join(int id) { send("JOIN " + id); }
+    void move(int id, String move) { send("MOVE " + id + " " + move); }
+    void undo(int id) { send("UNDO " + id); }
+    void resign(int id, boolean white) { send("RESIGN " + id + " " + (white ? "WHITE" : "BLACK")); }
+    void leave(int id) { send("LEAVE " + id); }
+
+    @Override
+    public void close() {
+        closed = true;
+        try { channel.close(); } catch (IOException e) {}
+    }
+
+    private void send(String line) {
+        ByteBuffer buf = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        writeLock.lock();
+        try {
+            while (buf.hasRemaining()) channel.write(buf);
+        } catch (IOException e) {
+            close();   // 읽기 스레드가 disconnected를 알린다
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void read(Listener listener) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] f = line.split(" ");
+                switch (f[0]) {
+                    case "GAME":
+                        listener.gameStarted(Integer.parseInt(f[1]), Arrays.copyOfRange(f, 2, f.length));
+                        break;
+                    case "MOVED":
+                        listener.moved(Integer.parseInt(f[1]), Integer.parseInt(f[2]), f[3], Long.parseLong(f[4]), Long.parseLong(f[5]));
+                        break;
+                    case "UNDONE":
+                        listener.undone(Integer.parseInt(f[1]), Integer.parseInt(f[2]), Long.parseLong(f[3]), Long.parseLong(f[4]));
+                        break;
+                    case "END": {
+                        String[] e = line.split(" ", 4);   // 사유에는 공백이 있을 수 있다
+                        listener.ended(Integer.parseInt(e[1]), GameSession.parseResult(e[2]), e.length > 3 ? e[3] : "");
+                        break;
+                    }
+                    case "ERR":
+                        listener.error(line.substring(4));
+                        break;
+                    default:   // CHECK, PONG: 클라이언트가 국면으로 직접 안다
+                }
+            }
+        } catch (IOException e) {
+            // 끊겼다
+        }
+        if (!closed) listener.disconnected();
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// --- 대국 시계 ---
+// 남은 시간은 System.nanoTime 기준으로 차례가 바뀔 때만 확정하고, 흐르는 중인 쪽은 읽을 때 계산한다.
+// 화면 갱신은 표시되는 초가 바뀌는 순간에 맞춰 한 번씩만 예약하므로 1초마다 깨어나는 스레드도, 누적 오차도 없다.
+// 모든 시계는 SCHEDULER 스레드 하나를 같이 쓴다. 리스너는 그 스레드에서 불린다.
+// 표시할 화면이 없는 시계(서버)는 ticking = false로 만들어 시간이 다 되는 순간에만 깨어난다.
+final class GameClock {
+    interface Listener {
+        void clockChanged(boolean white, long remainingMillis);   // 표시되는 초가 바뀌었을 때
+        void flagFell(boolean white);                             // 시간이 다 됐을 때 (한 번)
+    }
+
+    static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "game-clock");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long incrementNanos;   // 피셔 방식: 수를 두면 더해 준다
+    private final long delayNanos;       // 딜레이 방식: 차례마다 이 시간이 지나야 줄기 시작한다
+    private final Listener listener;
+    private final boolean ticking;   // false면 초마다 알리지 않는다 (차례가 바뀔 때와 시간이 다 됐을 때만)
+    private final long[] remaining = new long[2];   // [0] 백, [1] 흑 (ns). 흐르는 쪽은 turnStart 때의 값
+    private final long[] shown = {-1, -1};          // 마지막으로 알린 초
+    private int running = -1;                       // 흐르는 쪽, -1 = 멈춤
+    private long turnStart;
+    private ScheduledFuture<?> pending;
+
+    GameClock(long initialMillis, long incrementMillis, long delayMillis, Listener listener) {
+        this(initialMillis, incrementMillis, delayMillis, true, listener);
+    }
+
+    GameClock(long initialMillis, long incrementMillis, long delayMillis, boolean ticking, Listener listener) {
+        this.ticking = ticking;
+        remaining[0] = remaining[1] = TimeUnit.MILLISECONDS.toNanos(initialMillis);
+        incrementNanos = TimeUnit.MILLISECONDS.toNanos(incrementMillis);
+        delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        this.listener = listener;
+    }
+
+    // white 쪽 시계를 흐르게 한다. 흐르던 쪽은 지금까지 쓴 시간만 빼고 멈춘다 (증초 없음)
+    synchronized void start(boolean white) {
+        settle();
+        running = white ? 0 : 1;
+        turnStart = System.nanoTime();
+        schedule();
+    }
+
+    // 수를 두었을 때: 둔 쪽에 증초를 더하고 상대 시계를 흐르게 한다
+    synchronized void press() {
+        if (running < 0) return;
+        int mover = running;
+        settle();
+        remaining[mover] += incrementNanos;
+        running = 1 - mover;
+        turnStart = System.nanoTime();
+        publish(mover);
+        schedule();
+    }
+
+    // 대국이 끝났거나 창을 닫을 때
+    synchronized void stop() {
+        settle();
+        running = -1;
+        if (pending != null) pending.cancel(false);
+        pending = null;
+    }
+
+    synchronized long getRemainingMillis(boolean white) {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, live(white ? 0 : 1, System.nanoTime())));
+    }
+
+    synchronized void setRemainingMillis(boolean white, long millis) {
+        int side = white ? 0 : 1;
+        if (side == running) turnStart = System.nanoTime();
+        remaining[side] = TimeUnit.MILLISECONDS.toNanos(millis);
+        shown[side] = -1;
+        publish(side);
+        if (side == running) schedule();
+    }
+
+    // 표시용: 남은 시간을 올림한 초 (0.3초 남았으면 1초로 보인다)
+    static long displaySeconds(long remainingMillis) { return (remainingMillis + 999) / 1000; }
+
+    private long live(int side, long now) {
+        if (side != running) return remaining[side];
+        return remaining[side] - Math.max(0, now - turnStart - delayNanos);
+    }
+
+    private void settle() {
+        if (running < 0) return;
+        remaining[running] = live(running, System.nanoTime());
+    }
+
+    private void publish(int side) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, live(side, System.nanoTime())));
+        long seconds = displaySeconds(millis);
+        if (seconds == shown[side]) return;
+        shown[side] = seconds;
+        listener.clockChanged(side == 0, millis);
+    }
+
+    // 흐르는 쪽의 표시 초가 다음에 바뀌는 순간 (딜레이가 남아 있으면 그만큼 뒤)에 한 번 깨어난다.
+    // ticking이 아니면 시간이 다 되는 순간에 한 번만 깨어난다
+    private void schedule() {
+        if (pending != null) pending.cancel(false);
+        pending = null;
+        if (running < 0) return;
+        int side = running;
+        long now = System.nanoTime();
+        long left = live(side, now);
+        publish(side);
+        if (left <= 0) {
+            running = -1;
+            remaining[side] = 0;
+            listener.flagFell(side == 0);
+            return;
+        }
+        long second = TimeUnit.SECONDS.toNanos(1);
+        long untilChange = ticking ? left - (left - 1) / second * second : left;   // 표시 초가 하나 줄어드는 데까지
+        long delayLeft = Math.max(0, turnStart + delayNanos - now);
+        pending = SCHEDULER.schedule(this::tick, untilChange + delayLeft, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void tick() {
+        if (running >= 0) schedule();
+    }
+}
@@ -0,0 +1,306 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// --- 대국 서버 ---
+// 한 프로세스에서 여러 판을 연다. 연결마다 가상 스레드 하나가 줄 단위 명령을 읽어 처리하고, 또 하나가 보낼 줄을 쓴다.
+// 판의 락을 잡은 채로 소켓에 쓰지 않는다: 보내기는 연결의 보낼 큐에 넣기만 하고, 큐가 넘치는 (읽지 않는) 연결은 끊는다.
+// 판마다 GameSession 하나(화면 없음, 판정은 그 자리에서)를 두며 시계는 모두 GameClock.SCHEDULER를 같이 쓴다.
+// 주소는 로컬 TCP 포트 (기본 5555, 루프백에만 연다) 또는 "unix:경로" (유닉스 도메인 소켓).
+// 기록 파일을 주면 끝난 판을 모두 그 파일에 PGN으로 덧붙인다.
+//
+// 프로토콜: ASCII 한 줄에 명령 하나, 칸은 공백. 수는 "e2e4", 승진은 "e7e8q".
+//   클라이언트 -> 서버
+//     NEW <초기 시간 ms> <증초 ms> [WHITE|BLACK]
+//                                      새 판을 열고 구독한다. 색을 주면 그 자리에, 안 주면 두 자리에 다 앉는다  -> GAME
+//     JOIN <id>                        열려 있는 판을 구독한다. 빈 자리가 있으면 앉고 없으면 관전만 한다       -> GAME
+//     MOVE <id> <수>                   지금 차례의 수를 둔다 (그 차례 자리에 앉은 연결만) -> (구독자 모두에게) MOVED, CHECK, END
+//     UNDO <id>                        한 수 무른다 (자리에 앉은 연결만)    -> UNDONE
+//     RESIGN <id> <WHITE|BLACK>        그 색으로 기권 (그 자리에 앉은 연결만) -> END
+//     LEAVE <id>                       구독을 끊는다. 구독자가 없는 판은 닫힌다
+//     PING                                                               -> PONG
+//   서버 -> 클라이언트
+//     GAME <id> [지금까지 둔 수...]
+//     MOVED <id> <수 개수> <수> <백 남은 ms> <흑 남은 ms>
+//     UNDONE <id> <수 개수> <백 남은 ms> <흑 남은 ms>
+//     CHECK <id>
+//     END <id> <1-0|0-1|1/2-1/2> <사유>
+//     ERR <id 또는 -> <메시지>
+// 클라이언트는 MOVED의 수 개수로 자기가 보낸 수의 확인인지, 다른 연결이 둔 수인지 구분한다.
+public class GameServer {
+    static final String DEFAULT_ADDRESS = "5555";
+    private static final int OUTBOX_LINES = 1024;   // 이만큼 못 보내고 밀리면 읽지 않는 연결로 보고 끊는다
+    private static final String CLOSE = new String("CLOSE");   // writer를 멈추는 표시 (같은 객체인지로 본다)
+
+    private final Map<Integer, Game> games = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Path archive;   // null이면 끝난 판을 남기지 않는다
+
+    GameServer() { this(null); }
+
+    GameServer(Path archive) { this.archive = archive; }
+
+    // 한 판. 세션은 lock을 잡은 스레드에서만 다룬다 (연결 스레드, 또는 시간이 다 됐을 때 새 가상 스레드)
+    private static final class Game {
+        final int id;
+        final ReentrantLock lock = new ReentrantLock();
+        final List<Connection> subscribers = new CopyOnWriteArrayList<>();
+        final GameSession session;
+        Connection white, black;   // 자리에 앉은 연결 (lock을 잡고 다룬다). null이면 빈 자리
+
+        Game(int id, long clockMillis, long incrementMillis, Path archive) {
+            this.id = id;
+            // 이미 락을 잡은 스레드에서 온 알림은 그 자리에서, 시계 스레드에서 온 알림(시간 끝)은 새 가상 스레드에서 처리한다.
+            // 시계 스레드는 모든 판이 같이 쓰므로 거기서 락을 기다리거나 소켓에 쓰지 않는다
+            session = new GameSession(clockMillis, incrementMillis, 0,
+                    r -> { if (lock.isHeldByCurrentThread()) r.run(); else Thread.startVirtualThread(() -> locked(r)); }, false,
+                    new GameSession.Listener() {
+                @Override
+                public void movePlayed(int move, Piece mover, Piece captured) {
+                    broadcast("MOVED " + id + " " + session.getLogic().getPly() + " " + Move.toString(move) + " " + clocks());
+                }
+                @Override
+                public void statusReady(PositionStatus status, boolean afterMove) {
+                    if (afterMove && status.isCheck() && session.isActive()) broadcast("CHECK " + id);
+                }
+                @Override
+                public void gameEnded(int result, String reason) {
+                    broadcast("END " + id + " " + GameSession.resultText(result) + " " + reason);
+                }
+                @Override public void logAppended(boolean white, String text) {}
+                @Override public void historyReset() {}
+                @Override public void clockChanged(boolean white, long remainingMillis) {}
+                @Override public void autosaveFailed(String message) {}
+            });
+            session.setArchive(archive);
+        }
+
+        void locked(Runnable r) {
+            lock.lock();
+            try {
+                r.run();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        String clocks() { return session.getRemainingMillis(true) + " " + session.getRemainingMillis(false); }
+
+        void broadcast(String line) {
+            for (Connection c : subscribers) c.send(line);
+        }
+
+        Connection seat(boolean forWhite) { return forWhite ? white : black; }
+    }
+
+    // 연결 하나. 읽기는 이 연결의 가상 스레드가, 쓰기는 writer 가상 스레드가 outbox에서 꺼내 한다.
+    // send는 누가 불러도 (판의 락을 잡고 있어도) 기다리지 않는다
+    private final class Connection implements Runnable {
+        final SocketChannel channel;
+        final LinkedBlockingQueue<String> outbox = new LinkedBlockingQueue<>(OUTBOX_LINES);
+        final List<Game> joined = new CopyOnWriteArrayList<>();
+
+        Connection(SocketChannel channel) { this.channel = channel; }
+
+        void send(String line) {
+            if (!outbox.offer(line)) disconnect();   // 읽지 않는 연결: 끊으면 읽기 쪽이 정리한다
+        }
+
+        void disconnect() {
+            try { channel.close(); } catch (IOException e) {}
+        }
+
+        // 쌓인 줄을 한 번에 모아 쓴다
+        private void write() {
+            List<String> batch = new ArrayList<>();
+            StringBuilder sb = new StringBuilder();
+            try {
+                while (true) {
+                    batch.add(outbox.take());
+                    outbox.drainTo(batch);
+                    for (String line : batch) {
+                        if (line == CLOSE) return;
+                        sb.append(line).append('\n');
+                    }
+                    batch.clear();
+                    if (!flush(sb)) return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // 쓰기와 그 예외 처리는 따로 둔다. 반복문 안에서 바로 잡으면 JDK 21.0.1의 JIT 컴파일 뒤에
+        // 가상 스레드에서 (닫힌 채널의) 예외가 catch를 건너뛰는 경우가 있었다 (-Xint에서는 잡힌다)
+        private boolean flush(StringBuilder sb) {
+            ByteBuffer buf = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.US_ASCII));
+            sb.setLength(0);
+            try {
+                while (buf.hasRemaining()) channel.write(buf);
+                return true;
+            } catch (IOException e) {
+                disconnect();
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            connections.incrementAndGet();
+            Thread.ofVirtual().name("conn-writer").start(this::write);
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.US_ASCII))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.isEmpty()) handle(this, line.split(" "));
+                }
+            } catch (IOException e) {
+                // 연결이 끊겼다
+            } finally {
+                for (Game g : joined) leave(this, g);
+                connections.decrementAndGet();
+                disconnect();          // 쓰는 중이던 writer는 이걸로 깨어나 끝난다
+                outbox.offer(CLOSE);   // 기다리던 writer는 이걸로 끝난다 (큐가 꽉 찼으면 쓰는 중이다)
+            }
+        }
+    }
+
+    private void handle(Connection c, String[] cmd) {
+        try {
+            switch (cmd[0]) {
+                case "NEW": {
+                    long clock = Long.parseLong(cmd[1]), increment = Long.parseLong(cmd[2]);
+                    String side = cmd.length > 3 ? cmd[3] : null;
+                    if (side != null && !side.equals("WHITE") && !side.equals("BLACK")) throw new IllegalArgumentException(side);
+                    Game g = new Game(nextId.incrementAndGet(), clock, increment, archive);
+                    if (side == null || side.equals("WHITE")) g.white = c;
+                    if (side == null || side.equals("BLACK")) g.black = c;
+                    games.put(g.id, g);
+                    g.locked(() -> {
+                        g.session.start(false);
+                        join(c, g);
+                    });
+                    return;
+                }
+                case "PING":
+                    c.send("PONG");
+                    return;
+            }
+            int id = Integer.parseInt(cmd[1]);
+            Game g = games.get(id);
+            if (g == null) { c.send("ERR " + id + " no such game"); return; }
+            switch (cmd[0]) {
+                case "JOIN":
+                    g.locked(() -> join(c, g));
+                    break;
+                case "MOVE":
+                    g.locked(() -> {
+                        if (g.seat(g.session.isWhiteToMove()) != c) { c.send("ERR " + id + " not your turn"); return; }
+                        int move = Move.parse(g.session.getLogic(), cmd[2]);
+                        if (!g.session.play(move)) c.send("ERR " + id + " illegal " + cmd[2]);
+                    });
+                    break;
+                case "UNDO":
+                    g.locked(() -> {
+                        if (g.white != c && g.black != c) { c.send("ERR " + id + " not a player"); return; }
+                        if (g.session.takeBack()) g.broadcast("UNDONE " + id + " " + g.session.getLogic().getPly() + " " + g.clocks());
+                        else c.send("ERR " + id + " cannot undo");
+                    });
+                    break;
+                case "RESIGN": {
+                    if (!cmd[2].equals("WHITE") && !cmd[2].equals("BLACK")) throw new IllegalArgumentException(cmd[2]);
+                    boolean white = cmd[2].equals("WHITE");
+                    g.locked(() -> {
+                        if (g.seat(white) != c) c.send("ERR " + id + " not your seat");
+                        else g.session.resign(white);
+                    });
+                    break;
+                }
+                case "LEAVE":
+                    leave(c, g);
+                    break;
+                default:
+                    c.send("ERR - unknown command " + cmd[0]);
+            }
+        } catch (RuntimeException e) {   // 인자가 모자라거나 숫자가 아닌 경우
+            c.send("ERR - bad command: " + String.join(" ", cmd));
+        }
+    }
+
+    // lock을 잡고 부른다. 빈 자리가 있으면 앉힌다 (백 먼저).
+    // 지금까지의 수순을 같이 보내서 중간에 들어와도 같은 국면을 만들 수 있게 한다
+    private static void join(Connection c, Game g) {
+        if (!g.subscribers.contains(c)) {
+            g.subscribers.add(c);
+            c.joined.add(g);
+        }
+        if (g.white == null && g.black != c) g.white = c;
+        else if (g.black == null && g.white != c) g.black = c;
+        ChessLogic logic = g.session.getLogic();
+        StringBuilder sb = new StringBuilder("GAME ").append(g.id);
+        for (int i = 0; i < logic.getPly(); i++) sb.append(' ').append(Move.toString(logic.getMoveAt(i)));
+        c.send(sb.toString());
+    }
+
+    // 나간 연결의 자리는 비워서 다른 연결이 JOIN으로 앉을 수 있게 한다. 구독자가 없는 판은 닫는다 (시계를 멈추고 목록에서 뺀다)
+    private void leave(Connection c, Game g) {
+        c.joined.remove(g);
+        g.locked(() -> {
+            g.subscribers.remove(c);
+            if (g.white == c) g.white = null;
+            if (g.black == c) g.black = null;
+            if (g.subscribers.isEmpty() && games.remove(g.id, g)) g.session.close();
+        });
+    }
+
+    int getGameCount() { return games.size(); }
+    int getConnectionCount() { return connections.get(); }
+
+    // 받아들이기는 호출한 스레드에서 한다. 연결마다 가상 스레드 하나
+    void serve(String address) throws IOException {
+        SocketAddress addr = address(address);
+        boolean unix = addr instanceof UnixDomainSocketAddress;
+        if (unix) Files.deleteIfExists(((UnixDomainSocketAddress) addr).getPath());
+        try (ServerSocketChannel server = unix ? ServerSocketChannel.open(StandardProtocolFamily.UNIX) : ServerSocketChannel.open()) {
+            server.bind(addr, 1024);
+            System.out.println("대국 서버: " + addr);
+            while (true) {
+                SocketChannel ch = server.accept();
+                if (!unix) ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Thread.ofVirtual().name("conn-" + ch.hashCode()).start(new Connection(ch));
+            }
+        }
+    }
+
+    // "5555" -> 루프백의 TCP 포트, "unix:/tmp/chess.sock" -> 유닉스 도메인 소켓
+    static SocketAddress address(String spec) {
+        if (spec.startsWith("unix:")) return UnixDomainSocketAddress.of(Path.of(spec.substring(5)));
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(spec));
+    }
+
+    // 실행: java GameServer [포트 | unix:경로] [기록 파일.pgn]
+    public static void main(String[] args) throws IOException {
+        new GameServer(args.length > 1 ? Path.of(args[1]) : null).serve(args.length > 0 ? args[0] : DEFAULT_ADDRESS);
+    }
+}
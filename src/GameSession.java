@@ -0,0 +1,426 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// --- 대국 진행 (화면 없음) ---
+// 한 판의 규칙 흐름을 맡는다: 국면과 수순, 시계, 기보(SAN), 잡은 기물, 차례 끝 판정, 결과, 자동 저장, 끝난 판의 PGN 기록.
+// Swing / AWT를 쓰지 않으므로 서버에서 여러 판을 한 JVM에 띄울 수 있고, MainGame은 이벤트를 받아 그리기만 한다.
+// 세션은 owner 스레드 하나에서만 다룬다 (MainGame은 EDT). 시계와 판정 작업자의 알림도 owner로 넘겨서 부른다.
+final class GameSession {
+    static final int ONGOING = 0, WHITE_WINS = 1, BLACK_WINS = 2, DRAW = 3;
+    private static final String[] RESULT_TEXT = {"*", "1-0", "0-1", "1/2-1/2"};
+
+    interface Listener {
+        void movePlayed(int move, Piece mover, Piece captured);       // play로 수를 두고 시계를 넘긴 직후 (판정 전, 불러오기에서는 없음)
+        void logAppended(boolean white, String text);
+        void historyReset();                                          // 무르기 / 불러오기: 기보와 잡은 기물을 처음부터 다시 그린다
+        void statusReady(PositionStatus status, boolean afterMove);   // 지금 국면의 판정이 나왔을 때
+        void clockChanged(boolean white, long remainingMillis);
+        void gameEnded(int result, String reason);
+        void autosaveFailed(String message);                          // 저널 쓰기가 실패해서 자동 저장을 멈췄을 때
+    }
+
+    private final ChessLogic logic = new ChessLogic();
+    private ChessLogic startPosition;   // 지금 수순이 시작된 국면 (저장할 때 여기서부터 수를 적는다)
+    private final GameClock clock;
+    private final long clockMillis;
+    private final boolean desktop;
+    private boolean autosave;                  // autosave.bin + 저널을 남길지 (기본은 desktop과 같다)
+    private boolean fromManualSave;            // saved_game.bin에서 불러온 판이면 끝났을 때 그 저장도 지운다
+    private Path archive;                      // 끝난 판을 덧붙일 PGN 파일. null이면 남기지 않는다 (기본은 desktop이면 Pgn.ARCHIVE)
+    private final Listener listener;
+    private final Executor owner;
+    private final StatusWorker statusWorker;   // null이면 판정을 owner 스레드에서 바로 한다
+    private PositionStatus status;             // 지금 국면의 판정. 계산 중이면 null
+    private boolean vsComputer;                // 컴퓨터는 흑
+    private int result = ONGOING;
+    private String reason = "";
+
+    // 기보와 잡은 기물: [0] 백, [1] 흑. 수마다 두기 전의 길이 네 개를 남겨 무르기에 쓴다
+    private final List<List<String>> log = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+    private final List<List<Piece>> captured = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+    private final List<int[]> marks = new ArrayList<>();
+
+    private Journal journal;   // 자동 저장: 수마다 저널에 덧붙인다
+    private ScheduledFuture<?> clockSnapshots;   // 생각하는 동안의 시간도 남기도록 주기적으로 시계 기록
+
+    // desktop: 화면에서 두는 판이면 판정을 StatusWorker 스레드에서 하고 autosave에 자동 저장한다.
+    // 서버는 false로 두어 판마다 스레드나 파일을 만들지 않는다
+    GameSession(long clockMillis, long incrementMillis, long delayMillis, Executor owner, boolean desktop, Listener listener) {
+        this.listener = listener;
+        this.owner = owner;
+        this.clockMillis = clockMillis;
+        this.desktop = desktop;
+        this.autosave = desktop;
+        this.archive = desktop ? Pgn.ARCHIVE : null;
+        this.statusWorker = desktop ? new StatusWorker(owner) : null;
+        clock = new GameClock(clockMillis, incrementMillis, delayMillis, desktop, new GameClock.Listener() {
+            @Override
+            public void clockChanged(boolean white, long remainingMillis) {
+                owner.execute(() -> listener.clockChanged(white, remainingMillis));
+            }
+            @Override
+            public void flagFell(boolean white) {
+                owner.execute(() -> { if (isActive()) finish(white ? BLACK_WINS : WHITE_WINS, "Time"); });
+            }
+        });
+        startPosition = new ChessLogic(logic);
+    }
+
+    // --- 조회 ---
+    ChessLogic getLogic() { return logic; }
+    PositionStatus getStatus() { return status; }
+    boolean isWhiteToMove() { return logic.getCurrentPlayer().equals("WHITE"); }
+    boolean isActive() { return result == ONGOING; }
+    boolean isVsComputer() { return vsComputer; }
+    boolean isComputerTurn() { return vsComputer && isActive() && !isWhiteToMove(); }
+    int getResult() { return result; }
+    String getReason() { return reason; }
+    long getRemainingMillis(boolean white) { return clock.getRemainingMillis(white); }
+    List<String> getLog(boolean white) { return log.get(white ? 0 : 1); }
+    List<Piece> getCaptured(boolean byWhite) { return captured.get(byWhite ? 0 : 1); }
+
+    // 서버 대국을 화면에 비추는 경우처럼 저장을 다른 곳이 맡을 때는 start 전에 끈다
+    void setAutosave(boolean autosave) { this.autosave = autosave; }
+
+    // 끝난 판을 남길 PGN 파일 (null이면 남기지 않는다). 서버는 모든 판이 같은 파일을 쓴다
+    void setArchive(Path archive) { this.archive = archive; }
+
+    // --- 시작 ---
+    void start(boolean vsComputer) {
+        this.vsComputer = vsComputer;
+        begin();
+    }
+
+    // 자동 저장(autosave.bin + 저널)과 저장 버튼의 saved_game.bin 중 나중에 쓴 것을, 둘 다 없으면 예전 saved_game.txt를 읽는다.
+    // 실패하면 새 게임으로 시작하고 예외를 그대로 던져서 화면 쪽이 알리게 한다
+    void resume() throws IOException {
+        try {
+            long auto = Journal.lastModified();
+            long manual = Files.exists(SaveFile.PATH) ? Files.getLastModifiedTime(SaveFile.PATH).toMillis() : -1;
+            if (auto >= 0 && auto >= manual) {
+                SaveFile.Game game = Journal.recover();
+                load(game, game.fromManualSave && manual >= 0);
+            }
+            else if (manual >= 0) load(SaveFile.read(SaveFile.PATH), true);
+            else loadLegacy();
+        } catch (IOException | RuntimeException e) {
+            logic.initializeGame();
+            startPosition = new ChessLogic(logic);
+            vsComputer = false;
+            fromManualSave = false;
+            clock.setRemainingMillis(true, clockMillis);
+            clock.setRemainingMillis(false, clockMillis);
+            clearHistory();
+            countCaptured();
+            listener.historyReset();
+            begin();
+            throw e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+        }
+        begin();
+    }
+
+    // 시계를 돌리고 자동 저장을 시작한 뒤 첫 판정을 한다
+    private void begin() {
+        clock.start(isWhiteToMove());
+        if (autosave) startJournal();
+        requestStatus(false);
+    }
+
+    private void startJournal() {
+        journal = new Journal(snapshot(), e -> owner.execute(this::onJournalFailed));
+        Journal j = journal;
+        clockSnapshots = GameClock.SCHEDULER.scheduleAtFixedRate(
+                () -> j.appendClock(clock.getRemainingMillis(true), clock.getRemainingMillis(false)), 10, 10, TimeUnit.SECONDS);
+    }
+
+    // --- 수 ---
+    // 지금 국면의 합법 수만 받는다. 판정이 나오기 전(status == null)이나 대국이 끝난 뒤에는 false
+    boolean play(int move) {
+        if (!isActive() || status == null || move == 0 || !status.isLegal(Move.from(move), Move.to(move))) return false;
+        Piece p = logic.getBoard().getPiece(Move.from(move));
+        Piece victim = Move.isCapture(move) ? logic.getBoard().getPiece(Move.captureSquare(move)) : null;
+        playMove(move);
+        clock.press();
+        if (journal != null) {
+            journal.appendMove(SaveFile.encode(move), clock.getRemainingMillis(true), clock.getRemainingMillis(false));
+            if (journal.shouldCompact()) journal.compact(snapshot());
+        }
+        listener.movePlayed(move, p, victim);
+        requestStatus(true);
+        return true;
+    }
+
+    // from -> to (승진 기물 종류, 없으면 0)을 지금 국면의 수로 바꾼다. 둘 수 없으면 0
+    int findMove(int from, int to, int promotion) { return logic.findMove(from, to, promotion); }
+
+    // 수를 두고 기보와 잡은 기물에 적는다. 불러온 수순을 다시 둘 때도 쓴다
+    private void playMove(int move) {
+        Piece p = logic.getBoard().getPiece(Move.from(move));
+        Piece victim = Move.isCapture(move) ? logic.getBoard().getPiece(Move.captureSquare(move)) : null;
+        int side = p.isWhite() ? 0 : 1;
+        marks.add(new int[]{log.get(0).size(), log.get(1).size(), captured.get(0).size(), captured.get(1).size()});
+        String entry = logic.getFullmoveNumber() + (side == 0 ? ". " : "... ") + Pgn.toSan(logic, move);   // "12. Nbd7", "12... O-O+"
+        logic.makeMove(move);
+        if (victim != null) captured.get(side).add(victim);
+        addLog(side == 0, entry);
+    }
+
+    // 컴퓨터 대전에서는 컴퓨터의 응수까지 함께 물러서 다시 사람 차례로 만든다. 무른 만큼 시간을 돌려주지는 않는다
+    boolean takeBack() {
+        if (!isActive() || !logic.canUndo() || marks.isEmpty()) return false;
+        do {
+            logic.unmakeMove();
+            if (journal != null) journal.appendUndo(clock.getRemainingMillis(true), clock.getRemainingMillis(false));
+            int[] m = marks.remove(marks.size() - 1);
+            truncate(log.get(0), m[0]);
+            truncate(log.get(1), m[1]);
+            truncate(captured.get(0), m[2]);
+            truncate(captured.get(1), m[3]);
+        } while (vsComputer && !isWhiteToMove() && logic.canUndo() && !marks.isEmpty());
+        listener.historyReset();
+        if (statusWorker != null) statusWorker.invalidate();
+        clock.start(isWhiteToMove());
+        requestStatus(false);
+        return true;
+    }
+
+    void resign(boolean white) { end(white ? BLACK_WINS : WHITE_WINS, "Resignation"); }
+
+    // 결과를 바깥(서버)이 정했을 때. 이미 끝났으면 무시한다
+    void end(int result, String reason) {
+        if (isActive()) finish(result, reason);
+    }
+
+    // 서버가 알려 준 남은 시간으로 맞춘다
+    void syncClock(long whiteMillis, long blackMillis) {
+        clock.setRemainingMillis(true, whiteMillis);
+        clock.setRemainingMillis(false, blackMillis);
+    }
+
+    // --- 차례 끝 판정 ---
+    private void requestStatus(boolean afterMove) {
+        status = null;
+        if (statusWorker != null) statusWorker.request(logic, s -> onStatus(s, afterMove));
+        else onStatus(PositionStatus.of(logic), afterMove);
+    }
+
+    // 판정 순서는 예전과 같다: 무승부 -> 체크메이트 -> 체크. 대국이 끝났으면 판정을 먼저 알리고 결과를 알린다
+    private void onStatus(PositionStatus s, boolean afterMove) {
+        status = s;
+        int ended = ONGOING;
+        if (afterMove && isActive()) {
+            if (s.isDraw()) {
+                addLog(isWhiteToMove(), "Draw (" + s.getDrawReason() + ")");
+                ended = DRAW;
+            } else if (s.getResult() == PositionStatus.CHECKMATE) {
+                ended = isWhiteToMove() ? BLACK_WINS : WHITE_WINS;
+            } else if (s.isCheck()) {
+                addLog(isWhiteToMove(), "CHECK!");
+            }
+            if (ended != ONGOING) stop(ended, s.isDraw() ? s.getDrawReason() : "Checkmate");
+        }
+        listener.statusReady(s, afterMove);
+        if (ended != ONGOING) listener.gameEnded(result, reason);
+    }
+
+    // --- 끝 ---
+    private void finish(int result, String reason) {
+        stop(result, reason);
+        listener.gameEnded(result, reason);
+    }
+
+    // 대국이 끝났으면 이어서 할 것이 없으므로 자동 저장을 지우고 (저장 버튼으로 남긴 이 판도), 기록 파일에 PGN으로 남긴다.
+    // 다른 판의 saved_game.bin은 건드리지 않는다
+    private void stop(int result, String reason) {
+        this.result = result;
+        this.reason = reason;
+        clock.stop();
+        endJournal(true);
+        if (fromManualSave) {
+            fromManualSave = false;
+            try {
+                Files.deleteIfExists(SaveFile.PATH);
+            } catch (IOException e) {
+                System.err.println("저장 파일 삭제 실패: " + e.getMessage());
+            }
+        }
+        if (archive != null) {
+            Path a = archive;
+            Pgn.Game game = toPgn();
+            Thread.startVirtualThread(() -> {   // 파일 쓰기는 owner 스레드(EDT, 서버의 판 락) 밖에서
+                try {
+                    Pgn.append(a, game);
+                } catch (IOException e) {
+                    System.err.println("기보 기록 실패: " + e.getMessage());
+                }
+            });
+        }
+    }
+
+    // 지금까지의 대국을 PGN 한 판으로 (시작 국면이 처음 배치가 아니면 FEN 태그를 붙인다)
+    Pgn.Game toPgn() {
+        Pgn.Game g = new Pgn.Game();
+        g.tags.put("Event", vsComputer ? "Casual Game vs Computer" : "Casual Game");
+        g.tags.put("Site", "?");
+        g.tags.put("Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd")));
+        g.tags.put("Round", "-");
+        g.tags.put("White", "Player");
+        g.tags.put("Black", vsComputer ? "Computer" : "Player");
+        g.result = resultText(result);
+        g.tags.put("Result", g.result);
+        String fen = startPosition.toFen();
+        if (!fen.equals(new ChessLogic().toFen())) {
+            g.tags.put("SetUp", "1");
+            g.tags.put("FEN", fen);
+        }
+        if (result != ONGOING) g.tags.put("Termination", reason.equals("Time") ? "time forfeit" : "normal");
+        for (int i = 0; i < logic.getPly(); i++) g.addMove(logic.getMoveAt(i));
+        return g;
+    }
+
+    // 저널에 쌓인 것을 다 쓴 뒤, 지금 대국 전체를 saved_game.bin에 쓰고 시계를 멈춘다.
+    // 이 판의 자동 저장은 그보다 오래됐으므로 지운다
+    void save() throws IOException {
+        endJournal(false);
+        fromManualSave = true;   // 이제 이 판이 saved_game.bin의 판이다
+        SaveFile.write(SaveFile.PATH, snapshot());
+        Files.deleteIfExists(Journal.PATH);
+        Files.deleteIfExists(SaveFile.AUTOSAVE_PATH);
+        clock.stop();
+    }
+
+    // 저장하지 않고 그만둘 때 (서버에서 연결이 끊긴 경우 등)
+    void close() {
+        clock.stop();
+        if (clockSnapshots != null) clockSnapshots.cancel(false);
+    }
+
+    private ByteBuffer snapshot() {
+        return SaveFile.encode(startPosition, logic, clock.getRemainingMillis(true), clock.getRemainingMillis(false), vsComputer, fromManualSave);
+    }
+
+    // 저널 쓰기가 실패했다: 대국은 그대로 두고 자동 저장만 멈춘 뒤 알린다 (저장 버튼의 save는 따로 시도한다).
+    // 저널은 떼지 않는다. 더 쓰지는 않지만 대국이 끝나면 남은 저장 파일을 지워야 한다
+    private void onJournalFailed() {
+        if (journal == null || journal.getFailure() == null) return;
+        if (clockSnapshots != null) clockSnapshots.cancel(false);
+        listener.autosaveFailed(journal.getFailure().getMessage());
+    }
+
+    // 자동 저장을 멈춘다. finished면 자동 저장 파일과 저널을 지운다
+    private void endJournal(boolean finished) {
+        if (clockSnapshots != null) clockSnapshots.cancel(false);
+        if (journal == null) return;
+        if (finished) journal.discard();
+        else journal.close();
+        journal = null;
+    }
+
+    // --- 불러오기 ---
+    // 시작 국면에서 저장된 수를 차례로 다시 둔다. 기보와 무르기 기록도 함께 되살아난다
+    // fromManualSave: saved_game.bin의 판을 이어 두는 것이면 자동 저장에도 그렇게 적고, 끝났을 때 saved_game.bin을 지운다
+    private void load(SaveFile.Game game, boolean fromManualSave) {
+        this.fromManualSave = fromManualSave;
+        vsComputer = game.vsComputer;
+        clock.setRemainingMillis(true, game.whiteMillis);
+        clock.setRemainingMillis(false, game.blackMillis);
+        logic.setPosition(game.start);
+        startPosition = new ChessLogic(logic);
+        clearHistory();
+        countCaptured();
+        for (int code : game.moves) {
+            playMove(SaveFile.decode(logic, code));
+            if (logic.isKingInCheck(logic.getCurrentPlayer())) addLog(isWhiteToMove(), "CHECK!");
+        }
+        listener.historyReset();
+    }
+
+    private void loadLegacy() throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(SaveFile.LEGACY_PATH)) {
+            // 1. 기본 정보 로드
+            logic.setCurrentPlayer(r.readLine());
+            clock.setRemainingMillis(true, Integer.parseInt(r.readLine()) * 1000L);
+            clock.setRemainingMillis(false, Integer.parseInt(r.readLine()) * 1000L);
+
+            // 2. 보드 상태 로드
+            for (int row = 0; row < 8; row++) {
+                String[] line = r.readLine().split(",");
+                for (int col = 0; col < 8; col++) {
+                    if (!line[col].equals("null")) {
+                        boolean w = line[col].startsWith("White");
+                        logic.setPiece(row, col, logic.createPiece(w, line[col].substring(5)));
+                    } else {
+                        logic.setPiece(row, col, null);
+                    }
+                }
+            }
+            logic.resetHistory(); // 반복 판정은 불러온 국면부터 다시 센다
+            startPosition = new ChessLogic(logic);
+            clearHistory();
+
+            // 3. 로그 텍스트 복구 (줄 구분은 %%%)
+            readLegacyLog(r.readLine(), log.get(0));
+            readLegacyLog(r.readLine(), log.get(1));
+
+            // 4. 잡은 기물은 판에 없는 기물로 계산
+            countCaptured();
+            listener.historyReset();
+        }
+    }
+
+    private static void readLegacyLog(String line, List<String> into) {
+        if (line == null || line.equals("EMPTY")) return;
+        for (String s : line.split("%%%")) if (!s.isEmpty()) into.add(s);
+    }
+
+    private void clearHistory() {
+        marks.clear();
+        for (List<String> l : log) l.clear();
+        for (List<Piece> c : captured) c.clear();
+    }
+
+    // 시작 국면에 없는 기물(=이미 잡힌 것)을 상대가 잡은 것으로 센다. 새 게임이면 아무것도 없다
+    private void countCaptured() {
+        int[] missing = {8, 2, 2, 2, 1, 1, 8, 2, 2, 2, 1, 1};   // 기물 번호별 처음 개수
+        Board board = startPosition.getBoard();
+        for (int i = 0; i < 12; i++) missing[i] -= Long.bitCount(board.getPieces(i < 6, i % 6));
+        int[] order = {Piece.ROOK, Piece.KNIGHT, Piece.BISHOP, Piece.QUEEN, Piece.KING, Piece.PAWN};
+        for (int color = 0; color < 2; color++) {
+            for (int kind : order) {
+                for (int n = 0; n < missing[color * 6 + kind]; n++) captured.get(1 - color).add(Piece.of(color == 0, kind));
+            }
+        }
+    }
+
+    // "1-0", "0-1", "1/2-1/2", 진행 중이면 "*" (PGN과 같은 표기)
+    static String resultText(int result) { return RESULT_TEXT[result]; }
+
+    static int parseResult(String text) {
+        for (int i = 0; i < RESULT_TEXT.length; i++) if (RESULT_TEXT[i].equals(text)) return i;
+        return ONGOING;
+    }
+
+    // --- 유틸리티 ---
+    private void addLog(boolean white, String text) {
+        log.get(white ? 0 : 1).add(text);
+        listener.logAppended(white, text);
+    }
+
+    private static <T> void truncate(List<T> list, int size) {
+        if (list.size() > size) list.subList(size, list.size()).clear();
+    }
+
+    private static final String[] SYMBOLS = {"♙", "♘", "♗", "♖", "♕", "♔", "♟", "♞", "♝", "♜", "♛", "♚"};
+    static String symbol(Piece p) { return SYMBOLS[p.getIndex()]; }
+}
@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// --- 수 기록 저널 (autosave.journal) ---
+// 진행 중인 대국은 자동 저장 파일(autosave.bin, 스냅샷) + 그 뒤로 둔 수를 덧붙이는 저널로 남는다.
+// 저장 버튼의 saved_game.bin은 건드리지 않는다.
+// 수 하나는 16바이트 기록 하나라서 매 수마다 파일 전체를 다시 쓰지 않는다. 프로그램이 죽어도 마지막으로 디스크에 내린 수까지 되살아난다.
+//   헤더 16바이트: "CHJL" | 버전 (2) | 이어지는 스냅샷의 CRC (4) | 0 채움
+//   기록 16바이트: 종류 (1) | 0 (1) | 수 코드 (2) | 백 남은 시간 ms (4) | 흑 남은 시간 ms (4) | CRC32 (4, 앞 12바이트)
+// 쓰기는 journal 스레드 하나가 한다. 큐에 쌓인 기록을 한 번에 쓰고 force를 한 번만 부른다 (group commit).
+// 기록이 COMPACT_AFTER 개 넘게 쌓이면 스냅샷을 새로 쓰고 저널을 비운다.
+// 쓰기가 실패하면 journal 스레드는 끝나고 onFailure를 (그 스레드에서) 한 번 부른다. 그 뒤의 기록은 쌓지 않고 버린다.
+final class Journal {
+    static final Path PATH = Paths.get("autosave.journal");
+    static final int MOVE = 1, UNDO = 2, CLOCK = 3;
+    static final int COMPACT_AFTER = 64;
+
+    private static final int MAGIC = 0x43484A4C;   // "CHJL"
+    private static final int VERSION = 1;
+    private static final int RECORD = 16;
+
+    private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();   // ByteBuffer(기록), Snapshot, CLOSE
+    private final Thread writer;
+    private final AtomicInteger records = new AtomicInteger();   // 마지막 스냅샷 뒤로 넣은 기록 수
+    private final Consumer<IOException> onFailure;
+    private volatile IOException failure;   // journal 스레드가 죽은 이유. null이면 살아 있다
+
+    private static final Object CLOSE = new Object();
+    private static final class Snapshot {
+        final ByteBuffer data;
+        final boolean discard;
+        Snapshot(ByteBuffer data, boolean discard) { this.data = data; this.discard = discard; }
+    }
+
+    // snapshot: SaveFile.encode로 만든 지금 대국 전체. 스냅샷을 쓰고 빈 저널로 시작한다
+    Journal(ByteBuffer snapshot, Consumer<IOException> onFailure) {
+        this.onFailure = onFailure;
+        queue.add(new Snapshot(snapshot, false));
+        writer = new Thread(this::run, "journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    void appendMove(int code, long whiteMillis, long blackMillis) { append(MOVE, code, whiteMillis, blackMillis); }
+    void appendUndo(long whiteMillis, long blackMillis) { append(UNDO, 0, whiteMillis, blackMillis); }
+    void appendClock(long whiteMillis, long blackMillis) { append(CLOCK, 0, whiteMillis, blackMillis); }
+
+    boolean shouldCompact() { return failure == null && records.get() >= COMPACT_AFTER; }
+
+    IOException getFailure() { return failure; }
+
+    // 지금까지의 대국 전체를 새 스냅샷으로 쓰고 저널을 비운다
+    void compact(ByteBuffer snapshot) {
+        if (failure != null) return;
+        records.set(0);
+        queue.add(new Snapshot(snapshot, false));
+    }
+
+    // 대국이 끝났을 때: 이어서 할 것이 없으므로 스냅샷과 저널을 지운다
+    void discard() {
+        if (failure != null) {   // 지울 스레드가 없으므로 여기서 지운다
+            try {
+                Files.deleteIfExists(PATH);
+                Files.deleteIfExists(SaveFile.AUTOSAVE_PATH);
+            } catch (IOException e) {}
+            return;
+        }
+        queue.add(new Snapshot(null, true));
+        close();
+    }
+
+    // 쌓인 기록을 모두 쓰고 끝날 때까지 기다린다
+    void close() {
+        if (failure != null) return;   // 이미 끝났다
+        queue.add(CLOSE);
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(int type, int code, long whiteMillis, long blackMillis) {
+        if (failure != null) return;   // 꺼낼 스레드가 없으므로 쌓지 않는다
+        ByteBuffer r = ByteBuffer.allocate(RECORD);
+        r.put((byte) type).put((byte) 0).putShort((short) code).putInt((int) whiteMillis).putInt((int) blackMillis);
+        CRC32 crc = new CRC32();
+        crc.update(r.array(), 0, 12);
+        r.putInt((int) crc.getValue());
+        r.flip();
+        records.incrementAndGet();
+        queue.add(r);
+    }
+
+    private void run() {
+        FileChannel ch = null;
+        List<Object> batch = new ArrayList<>();
+        ByteBuffer[] buffers = new ByteBuffer[0];
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch);
+                int i = 0;
+                while (i < batch.size()) {
+                    Object item = batch.get(i);
+                    if (item == CLOSE) { if (ch != null) ch.close(); return; }
+                    if (item instanceof Snapshot) {
+                        Snapshot s = (Snapshot) item;
+                        if (ch != null) ch.close();
+                        ch = null;
+                        if (s.discard) {
+                            Files.deleteIfExists(PATH);
+                            Files.deleteIfExists(SaveFile.AUTOSAVE_PATH);
+                        } else {
+                            SaveFile.write(SaveFile.AUTOSAVE_PATH, s.data);
+                            ch = create(SaveFile.checksum(s.data));
+                        }
+                        i++;
+                        continue;
+                    }
+                    // 다음 스냅샷 전까지 이어진 기록을 한 번에 쓰고 한 번만 디스크에 내린다
+                    int j = i;
+                    while (j < batch.size() && batch.get(j) instanceof ByteBuffer) j++;
+                    if (ch != null) {
+                        buffers = batch.subList(i, j).toArray(buffers);
+                        long total = (long) (j - i) * RECORD, written = 0;
+                        while (written < total) written += ch.write(buffers, 0, j - i);
+                        ch.force(false);
+                    }
+                    Arrays.fill(buffers, null);
+                    i = j;
+                }
+                batch.clear();
+            }
+        } catch (IOException e) {
+            failure = e;
+            queue.clear();
+            onFailure.accept(e);   // 자동 저장만 멈추고 대국은 계속한다
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (ch != null) try { ch.close(); } catch (IOException e) {}
+        }
+    }
+
+    private static FileChannel create(int snapshotChecksum) throws IOException {
+        FileChannel ch = FileChannel.open(PATH, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(RECORD);
+        header.putInt(MAGIC).putShort((short) VERSION).putInt(snapshotChecksum);
+        header.clear();
+        while (header.hasRemaining()) ch.write(header);
+        ch.force(true);
+        return ch;
+    }
+
+    // 자동 저장이 마지막으로 바뀐 때 (스냅샷과 저널 중 나중 것, ms). 없으면 -1
+    static long lastModified() throws IOException {
+        if (!Files.exists(SaveFile.AUTOSAVE_PATH)) return -1;
+        long t = Files.getLastModifiedTime(SaveFile.AUTOSAVE_PATH).toMillis();
+        return Files.exists(PATH) ? Math.max(t, Files.getLastModifiedTime(PATH).toMillis()) : t;
+    }
+
+    // 스냅샷에 저널을 이어 붙인 대국. 저널이 없거나 다른 스냅샷의 것이면 스냅샷 그대로.
+    // 끝부분이 잘렸거나 CRC가 틀린 기록부터는 버린다 (쓰다가 꺼진 경우)
+    static SaveFile.Game recover() throws IOException {
+        SaveFile.Game game = SaveFile.read(SaveFile.AUTOSAVE_PATH);
+        if (!Files.exists(PATH)) return game;
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(PATH));
+        if (buf.remaining() < RECORD || buf.getInt(0) != MAGIC || buf.getShort(4) != VERSION || buf.getInt(6) != game.checksum) return game;
+
+        int[] moves = Arrays.copyOf(game.moves, game.moves.length + buf.remaining() / RECORD);
+        int count = game.moves.length;
+        long whiteMillis = game.whiteMillis, blackMillis = game.blackMillis;
+        CRC32 crc = new CRC32();
+        for (int pos = RECORD; pos + RECORD <= buf.limit(); pos += RECORD) {
+            crc.reset();
+            crc.update(buf.array(), pos, 12);
+            if ((int) crc.getValue() != buf.getInt(pos + 12)) break;
+            int type = buf.get(pos);
+            if (type == MOVE) moves[count++] = buf.getShort(pos + 2) & 0xFFFF;
+            else if (type == UNDO) { if (count > 0) count--; }
+            else if (type != CLOCK) break;
+            whiteMillis = buf.getInt(pos + 4) & 0xFFFFFFFFL;
+            blackMillis = buf.getInt(pos + 8) & 0xFFFFFFFFL;
+        }
+        moves = Arrays.copyOf(moves, count);
+        SaveFile.validate(game.start, moves, count);
+        return new SaveFile.Game(game.start, moves, whiteMillis, blackMillis, game.vsComputer, game.fromManualSave, game.checksum);
+    }
+}
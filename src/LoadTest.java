@@ -0,0 +1,327 @@
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// --- 동시 대국 부하 시험 ---
+// N명의 가상 선수가 무작위 합법 수를 두면서 처리량, 수 처리 지연(p50 / p99 / p999 / 최대), GC 멈춤, 판당 메모리를 잰다.
+// 외부 라이브러리 없이 한 머신에서 돈다.
+//   local  (기본) 이 프로세스 안에 GameSession N개를 띄우고 판마다 가상 스레드 하나가 둔다. 지연 = GameSession.play 한 번
+//   server        GameServer에 연결 C개로 판 N개를 열고 둔다. 지연 = MOVE를 보내고 MOVED를 받기까지 (왕복)
+//   java LoadTest [-mode local|server] [-server 5555] [-games N] [-connections C] [-think ms] [-warmup s] [-seconds s] [-plies n]
+public class LoadTest {
+    private static String mode = "local", server = GameServer.DEFAULT_ADDRESS;
+    private static int games = 1000, connections = 32, maxPlies = 200;
+    private static long thinkMillis = 0, warmupSeconds = 5, measureSeconds = 20;
+    private static final long CLOCK_MILLIS = 60 * 60_000L;   // 시간패로 판이 끝나지 않을 만큼
+
+    private static final Histogram latency = new Histogram();
+    private static final Histogram gcPauses = new Histogram();
+    private static final AtomicLong moves = new AtomicLong(), finished = new AtomicLong(), errors = new AtomicLong();
+    private static volatile boolean measuring, stopped;
+
+    public static void main(String[] args) throws Exception {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-mode": mode = args[++i]; break;
+                case "-server": server = args[++i]; break;
+                case "-games": games = Integer.parseInt(args[++i]); break;
+                case "-connections": connections = Integer.parseInt(args[++i]); break;
+                case "-think": thinkMillis = Long.parseLong(args[++i]); break;
+                case "-warmup": warmupSeconds = Long.parseLong(args[++i]); break;
+                case "-seconds": measureSeconds = Long.parseLong(args[++i]); break;
+                case "-plies": maxPlies = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("알 수 없는 옵션: " + args[i]);
+            }
+        }
+        watchGc();
+        System.out.printf("mode=%s games=%d think=%dms warmup=%ds measure=%ds plies=%d%n", mode, games, thinkMillis, warmupSeconds, measureSeconds, maxPlies);
+        if (mode.equals("server")) runServer();
+        else runLocal();
+    }
+
+    // ==================== local: 이 프로세스 안의 세션 ====================
+    // GameServer의 판과 같은 방식으로 둔다: 화면 없는 세션 + 판마다 락, 시계 알림은 새 가상 스레드에서
+    private static final class LocalGame {
+        final ReentrantLock lock = new ReentrantLock();
+        final Random random = new Random(ThreadLocalRandom.current().nextLong());
+        GameSession session;
+
+        void reset() {
+            if (session != null) session.close();
+            session = new GameSession(CLOCK_MILLIS, 0, 0,
+                    r -> { if (lock.isHeldByCurrentThread()) r.run(); else Thread.startVirtualThread(() -> locked(r)); }, false, QUIET);
+            session.start(false);
+        }
+
+        void locked(Runnable r) {
+            lock.lock();
+            try { r.run(); } finally { lock.unlock(); }
+        }
+    }
+
+    private static void runLocal() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = settledHeap(memory);
+        LocalGame[] all = new LocalGame[games];
+        for (int i = 0; i < games; i++) {
+            all[i] = new LocalGame();
+            all[i].reset();
+        }
+        long after = settledHeap(memory);
+        System.out.printf("memory per idle game: %.1f KB (heap %.1f MB -> %.1f MB)%n",
+                (after - before) / 1024.0 / games, before / 1048576.0, after / 1048576.0);
+
+        List<Thread> players = new ArrayList<>();
+        for (LocalGame g : all) players.add(Thread.ofVirtual().start(() -> playLocal(g)));
+        measure();
+        for (Thread t : players) t.join();
+        for (LocalGame g : all) g.session.close();
+    }
+
+    private static void playLocal(LocalGame g) {
+        while (!stopped) {
+            think(g.random);
+            g.lock.lock();
+            try {
+                GameSession s = g.session;
+                if (!s.isActive() || s.getLogic().getPly() >= maxPlies) {
+                    if (!s.isActive()) finished.incrementAndGet();
+                    g.reset();
+                    continue;
+                }
+                PositionStatus status = s.getStatus();
+                int move = status.getMove(g.random.nextInt(status.getMoveCount()));
+                long start = System.nanoTime();
+                boolean ok = s.play(move);
+                record(System.nanoTime() - start, ok);
+            } finally {
+                g.lock.unlock();
+            }
+        }
+    }
+
+    // ==================== server: GameServer에 연결 ====================
+    // 판마다 국면 사본을 두고 수를 고른다. 한 판의 일은 그 판 연결의 읽기 스레드에서만 일어난다 (생각 시간이 있으면 예약 스레드)
+    private static final class RemoteGame {
+        final int id;
+        final GameClient client;
+        final ChessLogic logic = new ChessLogic();
+        final Random random = new Random(ThreadLocalRandom.current().nextLong());
+        volatile long sentAt;
+
+        RemoteGame(int id, GameClient client) { this.id = id; this.client = client; }
+    }
+
+    private static final Map<Integer, RemoteGame> remote = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService thinker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "load-think");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static void runServer() throws Exception {
+        List<GameClient> clients = new ArrayList<>();
+        for (int i = 0; i < Math.min(connections, games); i++) {
+            GameClient c = new GameClient(server);
+            c.start(new GameClient.Listener() {
+                @Override
+                public void gameStarted(int id, String[] played) {
+                    RemoteGame g = new RemoteGame(id, c);
+                    remote.put(id, g);
+                    next(g);
+                }
+                @Override
+                public void moved(int id, int ply, String text, long whiteMillis, long blackMillis) {
+                    RemoteGame g = remote.get(id);
+                    if (g == null || ply != g.logic.getPly() + 1) return;
+                    record(System.nanoTime() - g.sentAt, true);
+                    g.logic.makeMove(Move.parse(g.logic, text));
+                    if (thinkMillis > 0) thinker.schedule(() -> next(g), thinkDelay(g.random), TimeUnit.MILLISECONDS);
+                    else next(g);
+                }
+                @Override public void undone(int id, int ply, long whiteMillis, long blackMillis) {}
+                @Override public void ended(int id, int result, String reason) {}
+                @Override public void error(String message) { errors.incrementAndGet(); }
+                @Override public void disconnected() { if (!stopped) System.err.println("서버 연결이 끊겼습니다"); }
+            });
+            clients.add(c);
+        }
+        for (int i = 0; i < games; i++) clients.get(i % clients.size()).newGame(CLOCK_MILLIS, 0);
+        measure();
+        for (RemoteGame g : remote.values()) g.client.leave(g.id);
+        for (GameClient c : clients) c.close();
+    }
+
+    // 끝났거나 충분히 길어진 판은 나가고 새 판을 연다 (GAME이 오면 그 판을 둔다)
+    private static void next(RemoteGame g) {
+        if (stopped) return;
+        PositionStatus status = PositionStatus.of(g.logic);
+        if (status.isGameOver() || g.logic.getPly() >= maxPlies) {
+            if (status.isGameOver()) finished.incrementAndGet();
+            remote.remove(g.id);
+            g.client.leave(g.id);
+            g.client.newGame(CLOCK_MILLIS, 0);
+            return;
+        }
+        int move = status.getMove(g.random.nextInt(status.getMoveCount()));
+        g.sentAt = System.nanoTime();
+        g.client.move(g.id, Move.toString(move));
+    }
+
+    // ==================== 측정 ====================
+    private static void measure() throws InterruptedException {
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        latency.reset();
+        gcPauses.reset();
+        moves.set(0);
+        long gcCount = gcCount(), gcMillis = gcMillis();
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(measureSeconds));
+        measuring = false;
+        long nanos = System.nanoTime() - start;
+        stopped = true;
+
+        System.out.printf("%-24s %14.0f%n", "throughput (moves/s)", moves.get() / (nanos / 1e9));
+        System.out.printf("%-24s %14d%n", "moves", moves.get());
+        System.out.printf("%-24s %14d%n", "games finished", finished.get());
+        System.out.printf("%-24s %14d%n", "errors", errors.get());
+        System.out.printf("%-24s %10s %10s %10s %10s %10s%n", "latency (us)", "p50", "p99", "p999", "max", "mean");
+        System.out.printf("%-24s %10.1f %10.1f %10.1f %10.1f %10.1f%n", mode.equals("server") ? "MOVE -> MOVED" : "GameSession.play",
+                latency.percentile(50) / 1e3, latency.percentile(99) / 1e3, latency.percentile(99.9) / 1e3, latency.max() / 1e3, latency.mean() / 1e3);
+        System.out.printf("%-24s %14d (total %d ms, max pause %.1f ms, p99 pause %.1f ms)%n", "GC collections",
+                gcCount() - gcCount, gcMillis() - gcMillis, gcPauses.max() / 1e6, gcPauses.percentile(99) / 1e6);
+    }
+
+    private static void record(long nanos, boolean ok) {
+        if (!ok) errors.incrementAndGet();
+        if (!measuring) return;
+        latency.record(nanos);
+        moves.incrementAndGet();
+    }
+
+    private static void think(Random random) {
+        if (thinkMillis <= 0) return;
+        try {
+            Thread.sleep(thinkDelay(random));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // 평균이 thinkMillis가 되도록 0 ~ 2배 사이에서 고른다
+    private static long thinkDelay(Random random) { return (long) (random.nextDouble() * 2 * thinkMillis); }
+
+    // GC를 몇 번 돌린 뒤의 힙 사용량 (판당 메모리를 재는 데 쓴다)
+    private static long settledHeap(MemoryMXBean memory) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // 수집기마다 끝날 때 알림을 받아 멈춘 시간을 모은다. 동시 수집(애플리케이션을 멈추지 않는 단계)은 뺀다
+    private static void watchGc() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter)) continue;
+            ((NotificationEmitter) gc).addNotificationListener((n, handback) -> {
+                if (!n.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+                if (info.getGcName().contains("Concurrent") || info.getGcAction().contains("concurrent")) return;
+                if (measuring) gcPauses.record(TimeUnit.MILLISECONDS.toNanos(info.getGcInfo().getDuration()));
+            }, null, null);
+        }
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionCount());
+        return n;
+    }
+
+    private static long gcMillis() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, gc.getCollectionTime());
+        return n;
+    }
+
+    private static final GameSession.Listener QUIET = new GameSession.Listener() {
+        @Override public void movePlayed(int move, Piece mover, Piece captured) {}
+        @Override public void logAppended(boolean white, String text) {}
+        @Override public void historyReset() {}
+        @Override public void statusReady(PositionStatus status, boolean afterMove) {}
+        @Override public void clockChanged(boolean white, long remainingMillis) {}
+        @Override public void gameEnded(int result, String reason) {}
+        @Override public void autosaveFailed(String message) {}
+    };
+
+    // --- 지연 히스토그램 ---
+    // HdrHistogram과 같은 로그-선형 버킷: 2의 거듭제곱 구간마다 32칸으로 나눠서 상대 오차가 약 3% 이내다.
+    // 기록은 여러 스레드가 동시에 해도 되고 (칸마다 원자적 덧셈) 할당이 없다.
+    static final class Histogram {
+        private static final int SUB_BITS = 5, SUB = 1 << SUB_BITS;
+        private final AtomicLongArray counts = new AtomicLongArray(SUB * 2 + (64 - SUB_BITS - 1) * SUB);
+        private final AtomicLong total = new AtomicLong(), sum = new AtomicLong(), maximum = new AtomicLong();
+
+        void record(long value) {
+            if (value < 0) value = 0;
+            counts.incrementAndGet(index(value));
+            total.incrementAndGet();
+            sum.addAndGet(value);
+            maximum.accumulateAndGet(value, Math::max);
+        }
+
+        void reset() {
+            for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+            total.set(0);
+            sum.set(0);
+            maximum.set(0);
+        }
+
+        // p(0 ~ 100) 백분위 값. 그 값이 든 칸의 위쪽 경계를 돌려준다 (최댓값을 넘지 않게)
+        long percentile(double p) {
+            long n = total.get();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(p / 100 * n), seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) return Math.min(upper(i), maximum.get());
+            }
+            return maximum.get();
+        }
+
+        long max() { return maximum.get(); }
+        double mean() { long n = total.get(); return n == 0 ? 0 : (double) sum.get() / n; }
+
+        // 2 * SUB 미만은 그대로 한 칸씩, 그 위는 최상위 비트 구간마다 SUB칸
+        private static int index(long v) {
+            if (v < 2 * SUB) return (int) v;
+            int exp = 63 - Long.numberOfLeadingZeros(v);
+            return (exp - SUB_BITS + 1) * SUB + (int) ((v >>> (exp - SUB_BITS)) & (SUB - 1));
+        }
+
+        private static long upper(int i) {
+            if (i < 2 * SUB) return i;
+            int exp = i / SUB + SUB_BITS - 1;
+            long sub = i % SUB;
+            return ((SUB + sub + 1) << (exp - SUB_BITS)) - 1;
+        }
+    }
+}
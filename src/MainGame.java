@@ -2,9 +2,9 @@ import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
 
 public class MainGame extends JFrame {
     private ChessLogic logic;
@@ -13,38 +13,71 @@ public class MainGame extends JFrame {
     private int WINDOW_HEIGHT;
 
     // UI Components
-    private JButton[][] squares = new JButton[8][8];
-    private JPanel boardPanel, capturedBlackPanel, capturedWhitePanel;
+    private BoardView boardView;
+    private OverlayLayer overlayLayer = new OverlayLayer();   // 잡기 장면 표시용
+    private JPanel capturedBlackPanel, capturedWhitePanel;
     private JTextArea logBlackArea, logWhiteArea;
     private JLabel timerBlackLabel, timerWhiteLabel;
-    private JButton surrenderBlackBtn, surrenderWhiteBtn, saveBtn;
+    private JButton surrenderBlackBtn, surrenderWhiteBtn, saveBtn, undoBtn;
 
     // Game State
-    private int timerWhite = 900;
-    private int timerBlack = 900;
-    private boolean gameActive = true;
+    // 대국 시계: 15분, 증초 / 딜레이 없음
+    private static final long CLOCK_MILLIS = 15 * 60_000L, INCREMENT_MILLIS = 0, DELAY_MILLIS = 0;
+    // 규칙 흐름(차례, 시계, 기보, 잡은 기물, 판정, 결과, 자동 저장)은 세션이 맡고 여기서는 알림을 받아 그리기만 한다.
+    // 알림은 모두 EDT에서 온다
+    private final GameSession session = new GameSession(CLOCK_MILLIS, INCREMENT_MILLIS, DELAY_MILLIS, SwingUtilities::invokeLater, true,
+            new GameSession.Listener() {
+        @Override
+        public void movePlayed(int move, Piece mover, Piece captured) { onMovePlayed(move, mover, captured); }
+        @Override
+        public void logAppended(boolean white, String text) { (white ? logWhiteArea : logBlackArea).append(text + "\n"); }
+        @Override
+        public void historyReset() { refreshLogs(); refreshCapturedPanels(); updateBoardDisplay(); }
+        @Override
+        public void statusReady(PositionStatus status, boolean afterMove) { onStatus(status, afterMove); }
+        @Override
+        public void clockChanged(boolean white, long remainingMillis) { (white ? timerWhiteLabel : timerBlackLabel).setText(formatTime(remainingMillis)); }
+        @Override
+        public void gameEnded(int result, String reason) { onGameEnded(result, reason); }
+        @Override
+        public void autosaveFailed(String message) { JOptionPane.showMessageDialog(MainGame.this, "자동 저장 실패 (대국은 계속합니다): " + message); }
+    });
     private boolean isAnimating = false;
-    private Thread gameThread;
-    private boolean isThreadRunning = false;
+    private final Runnable capturedSpritesReady = this::refreshCapturedPanels;   // 잡은 기물 스프라이트가 늦게 준비됐을 때
+
+    // 컴퓨터 대전 (컴퓨터는 흑)
+    private boolean computerThinking = false;
+    private static final int HASH_MB = 64;   // 전치 표 크기 (MB)
+    private static final int ENGINE_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1); // EDT용 코어 하나는 남긴다
+    private ParallelSearch search;
+    private int searchToken = 0;            // 무효가 된 탐색 결과를 버리기 위한 번호
+
+    // 서버 대국: 수는 서버에 보내고, 세션은 서버의 판을 그대로 따라 두는 사본이 된다
+    private GameClient client;
+    private int remoteId = -1;              // 서버가 GAME으로 알려 준 판 번호
+    // 서버가 알려 준 수 중 아직 못 둔 것 (애니메이션 중이거나 판정을 기다리는 동안 온 것). 순서대로 둔다
+    private final ArrayDeque<RemoteMove> remoteMoves = new ArrayDeque<>();
+
+    private static final class RemoteMove {
+        final int ply;
+        final String text;
+        RemoteMove(int ply, String text) { this.ply = ply; this.text = text; }
+    }
 
     // Selection & Moves
     private int selectedRow = -1;
     private int selectedCol = -1;
-    private List<Point> validMoves = new ArrayList<>();
+    private long validTargets = 0L;   // 선택한 기물이 갈 수 있는 칸 비트마스크
 
-    // 유니코드 fallback
-    private static final java.util.Map<String, String> UNICODE_PIECES = new java.util.HashMap<>();
-    static {
-        UNICODE_PIECES.put("WhiteKing", "♔"); UNICODE_PIECES.put("WhiteQueen", "♕");
-        UNICODE_PIECES.put("WhiteRook", "♖"); UNICODE_PIECES.put("WhiteBishop", "♗");
-        UNICODE_PIECES.put("WhiteKnight", "♘"); UNICODE_PIECES.put("WhitePawn", "♙");
-        UNICODE_PIECES.put("BlackKing", "♚"); UNICODE_PIECES.put("BlackQueen", "♛");
-        UNICODE_PIECES.put("BlackRook", "♜"); UNICODE_PIECES.put("BlackBishop", "♝");
-        UNICODE_PIECES.put("BlackKnight", "♞"); UNICODE_PIECES.put("BlackPawn", "♟");
-    }
+    public MainGame(boolean loadFromSave) { this(loadFromSave, false); }
+
+    public MainGame(boolean loadFromSave, boolean vsComputer) { this(loadFromSave, vsComputer, null); }
+
+    // 서버에 새 판을 열고 이 창에서 양쪽 수를 둔다. 저장은 서버가 맡으므로 자동 저장은 끈다
+    public MainGame(GameClient client) { this(false, false, client); }
 
-    public MainGame(boolean loadFromSave) {
-        logic = new ChessLogic();
+    private MainGame(boolean loadFromSave, boolean vsComputer, GameClient client) {
+        logic = session.getLogic();
 
         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
         WINDOW_WIDTH = (int) (screenSize.width * 0.95);
@@ -59,11 +92,17 @@ public class MainGame extends JFrame {
         setResizable(true);
 
         getLayeredPane().setLayout(null);
+        getLayeredPane().add(overlayLayer, JLayeredPane.MODAL_LAYER);
 
-        ResourceManager.preloadImages(SQUARE_SIZE);
+        ResourceManager.preloadImages(SQUARE_SIZE - 10);   // HiDPI 배율을 곱한 크기는 BoardView가 화면에 붙을 때 준비한다
+        ResourceManager.preloadImages(35);                 // 잡은 기물
+        ResourceManager.preloadImages(70);                 // 승진 다이얼로그
 
         JPanel mainPanel = new JPanel(new BorderLayout(0, 0)) {
-            private Image bgImage = ResourceManager.getDialogImage("background.jpg");
+            private Image bgImage;
+            {
+                ResourceManager.getDialogImage("background.jpg", img -> { bgImage = img; repaint(); });
+            }
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
@@ -85,66 +124,62 @@ public class MainGame extends JFrame {
         setContentPane(mainPanel);
         setVisible(true);
 
-        if (loadFromSave) loadGame();
-        else {
-            logic.initializeGame();
-            updateBoardDisplay();
+        ResourceManager.getDialogImage("WhiteCheck.png", null);
+        ResourceManager.getDialogImage("BlackCheck.png", null);
+        if (client != null) {
+            startRemote(client);
+        } else if (loadFromSave) {
+            try {
+                session.resume();
+            } catch (Exception e) {
+                JOptionPane.showMessageDialog(this, "불러오기 실패 (새 게임 시작): " + e.getMessage());
+            }
+        } else {
+            session.start(vsComputer);
         }
-        startGameThread();
+        updateBoardDisplay();
     }
 
     // ==================== 항복(Surrender) 로직 ====================
     private void surrender(String surrenderPlayer) {
-        if (!gameActive) return;
-        gameActive = false;
-        isThreadRunning = false;
-        String winner = surrenderPlayer.equals("WHITE") ? "BLACK" : "WHITE";
-        showVictoryDialog(winner);
+        if (client != null) client.resign(remoteId, surrenderPlayer.equals("WHITE"));   // 결과는 END로 온다
+        else session.resign(surrenderPlayer.equals("WHITE"));
     }
 
     // ==================== 게임 종료 로직 ====================
-    private void gameOver(boolean isDraw, String reason) {
-        gameActive = false;
-        isThreadRunning = false;
-        if (isDraw) {
+    private void onGameEnded(int result, String reason) {
+        stopComputer();
+        if (result == GameSession.DRAW) {
             showEndDialog("DRAW!", "", "draw.wav", "Draw.png");
         } else {
-            String winner = logic.getCurrentPlayer().equals("WHITE") ? "BLACK" : "WHITE";
-            showVictoryDialog(winner);
+            showVictoryDialog(result == GameSession.WHITE_WINS ? "WHITE" : "BLACK");
         }
+        if (reason.equals("Time")) JOptionPane.showMessageDialog(this, (result == GameSession.WHITE_WINS ? "BLACK" : "WHITE") + " TIME OUT!");
     }
 
     // ==================== 잡기 애니메이션 로직 ====================
     private void showCaptureAnimation(String attacker, String victim) {
-        String attPrefix = attacker.startsWith("Black") ? "B" : "W";
-        String attType = attacker.substring(5);
-        String attName = attPrefix + attType;
-
-        String vicPrefix = victim.startsWith("Black") ? "B" : "W";
-        String vicType = victim.substring(5);
-        String vicName = vicPrefix + vicType;
-
-        String fileName = attName + "Cap" + vicName + ".png";
-
-        ImageIcon icon = ResourceManager.getAnimationImage(fileName);
-
-        if (icon != null && icon.getIconWidth() > 0) {
-            JLabel animLabel = new JLabel(icon);
-            animLabel.setSize(icon.getIconWidth(), icon.getIconHeight());
-            int x = (getWidth() - animLabel.getWidth()) / 2;
-            int y = (getHeight() - animLabel.getHeight()) / 2;
-            animLabel.setLocation(x, y);
+        // 보통은 미리 읽어 둔 것이 바로 오고, 아니면 다 읽힌 뒤에 뜬다
+        ResourceManager.getAnimationImage(captureImageName(attacker, victim),
+                img -> overlayLayer.show(img, img.getWidth(null), img.getHeight(null), 1500));
+    }
 
-            getLayeredPane().add(animLabel, JLayeredPane.MODAL_LAYER);
-            getLayeredPane().repaint();
+    // 예: WhitePawn이 BlackKnight를 잡으면 WPawnCapBKnight.png
+    private static String captureImageName(String attacker, String victim) {
+        return attacker.charAt(0) + attacker.substring(5) + "Cap" + victim.charAt(0) + victim.substring(5) + ".png";
+    }
 
-            Timer removeTimer = new Timer(1500, e -> {
-                getLayeredPane().remove(animLabel);
-                getLayeredPane().repaint();
-            });
-            removeTimer.setRepeats(false);
-            removeTimer.start();
+    // 지금 둘 차례인 쪽이 잡을 수 있는 기물들의 잡기 장면을 미리 읽어 둔다
+    private void prefetchCaptureImages(PositionStatus status) {
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < status.getMoveCount(); i++) {
+            int m = status.getMove(i);
+            if (!Move.isCapture(m)) continue;
+            int from = Move.from(m), to = Move.captureSquare(m);
+            Piece attacker = logic.getPieceAt(from >>> 3, from & 7), victim = logic.getPieceAt(to >>> 3, to & 7);
+            if (victim != null) names.add(captureImageName(attacker.getImageName(), victim.getImageName()));
         }
+        ResourceManager.prefetchAnimationImages(names);
     }
 
     // ==================== UI 패널 생성 ====================
@@ -155,6 +190,9 @@ public class MainGame extends JFrame {
         saveBtn = createStyledMenuButton("Save & Main Menu", new Color(70, 130, 180));
         saveBtn.addActionListener(e -> saveGameAndExit());
         topPanel.add(saveBtn);
+        undoBtn = createStyledMenuButton("Undo", new Color(120, 120, 120));
+        undoBtn.addActionListener(e -> takeBack());
+        topPanel.add(undoBtn);
         return topPanel;
     }
 
@@ -263,36 +301,32 @@ public class MainGame extends JFrame {
         JPanel wrapperPanel = new JPanel(new GridBagLayout());
         wrapperPanel.setBackground(new Color(26, 26, 46, 0));
 
-        boardPanel = new JPanel(new GridLayout(8, 8));
-        boardPanel.setPreferredSize(new Dimension(SQUARE_SIZE * 8, SQUARE_SIZE * 8));
-        boardPanel.setBorder(new LineBorder(new Color(139, 90, 43), 5));
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                JButton square = new JButton();
-                square.setFocusPainted(false);
-                square.setBorderPainted(false);
-                final int r = row, c = col;
-                square.addActionListener(e -> handleSquareClick(r, c));
-                squares[row][col] = square;
-                boardPanel.add(square);
+        // 칸 64개를 컴포넌트 하나가 직접 그린다
+        boardView = new BoardView(logic, SQUARE_SIZE, this::handleSquareClick);
+        wrapperPanel.add(boardView);
+        // 창 크기가 바뀌면 판도 맞춰서 키우거나 줄인다 (최대 120)
+        wrapperPanel.addComponentListener(new java.awt.event.ComponentAdapter() {
+            @Override
+            public void componentResized(java.awt.event.ComponentEvent e) {
+                int side = Math.min(wrapperPanel.getWidth(), wrapperPanel.getHeight()) - 10;
+                if (side > 80) boardView.setSquareSize(Math.min(side / 8, 120));
             }
-        }
-        wrapperPanel.add(boardPanel);
+        });
         return wrapperPanel;
     }
 
     // ==================== 게임 플레이 로직 ====================
 
     private void handleSquareClick(int row, int col) {
-        if (!gameActive || isAnimating) return;
+        if (!session.isActive() || isAnimating || computerThinking || session.getStatus() == null) return;
+        if (client != null && remoteId < 0) return;   // 서버가 판을 열어 주기 전
         Piece clickedPiece = logic.getPieceAt(row, col);
         boolean isOwnPiece = clickedPiece != null && clickedPiece.isWhite() == (logic.getCurrentPlayer().equals("WHITE"));
 
         if (isOwnPiece) {
             selectPiece(row, col);
-        } else if (selectedRow != -1 && isValidMoveInList(row, col)) {
-            animatePiece(selectedRow, selectedCol, row, col);
+        } else if (selectedRow != -1 && (validTargets & (1L << (row * 8 + col))) != 0) {
+            animatePiece(selectedRow, selectedCol, row, col, 0);
         } else {
             resetSelection();
             updateBoardDisplay();
@@ -301,178 +335,124 @@ public class MainGame extends JFrame {
 
     private void selectPiece(int r, int c) {
         selectedRow = r; selectedCol = c;
-        validMoves.clear();
-        Piece p = logic.getPieceAt(r, c);
-        for(int i=0; i<8; i++) for(int j=0; j<8; j++) {
-            if(logic.checkRules(r, c, i, j, p) && logic.simulateMoveAndCheckSafety(r, c, i, j)) {
-                validMoves.add(new Point(i, j));
-            }
-        }
+        validTargets = session.getStatus().getTargets(r * 8 + c);
         updateBoardDisplay();
     }
 
     // [수정 완료] 애니메이션 로직 복구
-    private void animatePiece(int r1, int c1, int r2, int c2) {
+    // promotion: 승진할 기물 종류. 0이면 사람이 두는 수이므로 필요할 때 다이얼로그로 묻는다
+    private void animatePiece(int r1, int c1, int r2, int c2, int promotion) {
         isAnimating = true;
-        JButton startBtn = squares[r1][c1];
-        JButton endBtn = squares[r2][c2];
-
-        Point p1 = SwingUtilities.convertPoint(startBtn, 0, 0, getLayeredPane());
-        Point p2 = SwingUtilities.convertPoint(endBtn, 0, 0, getLayeredPane());
-
-        JLabel floatingPiece = new JLabel();
-        if (startBtn.getIcon() != null) floatingPiece.setIcon(startBtn.getIcon());
-        else floatingPiece.setText(startBtn.getText());
-
-        floatingPiece.setSize(startBtn.getSize());
-        floatingPiece.setLocation(p1);
-
-        getLayeredPane().add(floatingPiece, JLayeredPane.DRAG_LAYER);
-        startBtn.setIcon(null);
-        startBtn.setText("");
-
-        long startTime = System.currentTimeMillis();
-        long duration = 200; // 0.2초 동안 이동
-
-        Timer animTimer = new Timer(10, null);
-        animTimer.addActionListener(e -> {
-            long now = System.currentTimeMillis();
-            float fraction = (float)(now - startTime) / duration;
-
-            if (fraction >= 1.0f) {
-                fraction = 1.0f;
-                animTimer.stop();
-                getLayeredPane().remove(floatingPiece);
-                getLayeredPane().repaint();
-                finalizeMove(r1, c1, r2, c2);
-            } else {
-                int curX = (int)(p1.x + (p2.x - p1.x) * fraction);
-                int curY = (int)(p1.y + (p2.y - p1.y) * fraction);
-                floatingPiece.setLocation(curX, curY);
-            }
-        });
-        animTimer.start();
+        int index = logic.getPieceAt(r1, c1).getIndex();
+        int size = boardView.getSquareSize();
+        int x1 = c1 * size, y1 = r1 * size, x2 = c2 * size, y2 = r2 * size;
+
+        // 출발 칸은 비워 두고 떠 있는 기물을 그 위에서 움직인다 (0.2초)
+        boardView.update(-1, 0L, -1, r1 * 8 + c1);
+        Animator.play(200, true,
+                t -> boardView.setFloatingPiece(index, Math.round(x1 + (x2 - x1) * t), Math.round(y1 + (y2 - y1) * t)),
+                () -> {
+                    boardView.setFloatingPiece(-1, 0, 0);
+                    finalizeMove(r1, c1, r2, c2, promotion);
+                });
     }
 
-    private void finalizeMove(int oldR, int oldC, int newR, int newC) {
+    private void finalizeMove(int oldR, int oldC, int newR, int newC, int promotion) {
         Piece p = logic.getPieceAt(oldR, oldC);
-        Piece target = logic.getPieceAt(newR, newC);
-        String moveLog = "";
+        if (promotion == 0 && p instanceof Pawn && (newR == 0 || newR == 7)) promotion = showPromotionDialog(logic.getCurrentPlayer()).getKind();
+        int move = session.findMove(oldR * 8 + oldC, newR * 8 + newC, promotion);
+
+        resetSelection();
+        isAnimating = false;
+        // 서버 대국이면 보내 놓고 여기서도 바로 둔다. 규칙이 같으므로 서버의 MOVED는 확인으로만 쓴다
+        if (client != null && move != 0) client.move(remoteId, Move.toString(move));
+        if (!session.play(move)) updateBoardDisplay();
+        applyRemoteMoves();
+    }
 
-        if (p instanceof King && Math.abs(newC - oldC) == 2) {
-            logic.handleCastling(oldR, oldC, newR, newC);
-            moveLog = " (Castling)";
+    // 수가 두어진 직후: 소리, 잡기 장면, 잡은 기물 패널. 판정은 그 뒤에 따로 온다 (그동안 클릭은 무시된다)
+    private void onMovePlayed(int move, Piece mover, Piece captured) {
+        if (Move.isCastle(move)) {
             ResourceManager.playSound("castle.wav");
-        } else if (target != null) {
-            addCapturedPiece(logic.getCurrentPlayer(), target.getImageName());
-            showCaptureAnimation(p.getImageName(), target.getImageName());
+        } else if (captured != null) {
+            addCapturedPiece(mover.isWhite(), captured);
+            showCaptureAnimation(mover.getImageName(), captured.getImageName());
             ResourceManager.playSound("capture.wav");
         } else {
             ResourceManager.playSound("move.wav");
         }
-
-        logic.executeMove(oldR, oldC, newR, newC);
-
-        if (p instanceof Pawn && (newR == 0 || newR == 7)) {
-            Piece newPiece = showPromotionDialog(logic.getCurrentPlayer());
-            logic.promotePawn(newR, newC, newPiece);
-            moveLog += " (Promoted)";
-            ResourceManager.playSound("promote.wav");
-        }
-
-        String symbol = UNICODE_PIECES.get(p.getImageName());
-        addLog(symbol + " " + getChessNotation(oldR, oldC) + " -> " + getChessNotation(newR, newC) + moveLog, logic.getCurrentPlayer());
-
-        logic.switchTurn();
-        resetSelection();
-        checkGameOverState();
-        isAnimating = false;
+        if (Move.promotion(move) != 0) ResourceManager.playSound("promote.wav");
         updateBoardDisplay();
     }
 
-    private void checkGameOverState() {
-        if(logic.checkInsufficientMaterial()) {
-            addLog("Draw (Insufficient Material)", logic.getCurrentPlayer());
-            gameOver(true, "Insufficient Material");
-            return;
-        }
-        if(logic.checkThreefoldRepetition()) {
-            addLog("Draw (3-fold Repetition)", logic.getCurrentPlayer());
-            gameOver(true, "3-fold Repetition");
-            return;
-        }
+    // ==================== 차례 끝 판정 ====================
+    // 판정은 세션이 (StatusWorker로) 하고 결과만 여기로 온다. 끝난 대국이면 이어서 gameEnded가 온다
+    private void onStatus(PositionStatus s, boolean afterMove) {
+        updateBoardDisplay();
+        prefetchCaptureImages(s);
+        if (afterMove && s.isCheck() && !s.isDraw()) ResourceManager.playSound("check.wav");
+        if (!session.isActive()) return;
+        if (afterMove && s.isCheck()) showCheckDialog(logic.getCurrentPlayer());
+        if (session.isComputerTurn()) startComputerMove();
+        applyRemoteMoves();
+    }
 
-        boolean inCheck = logic.isKingInCheck(logic.getCurrentPlayer());
-        boolean canMove = logic.hasLegalMoves(logic.getCurrentPlayer());
+    // ==================== 컴퓨터 대전 로직 ====================
+    // 탐색은 별도 스레드에서 국면 복사본으로 하고, 결과만 EDT로 넘겨서 사람 수와 같은 경로로 둔다
+    private void startComputerMove() {
+        computerThinking = true;
+        if (search == null) search = new ParallelSearch(ENGINE_THREADS, new TranspositionTable(HASH_MB));
+        ParallelSearch s = search;
+        int token = ++searchToken;
+        ChessLogic position = new ChessLogic(logic);
+        long budget = Engine.budgetFor((int) (session.getRemainingMillis(false) / 1000));
+        Thread t = new Thread(() -> {
+            int move = s.findBestMove(position, budget, 64);
+            SwingUtilities.invokeLater(() -> {
+                if (token != searchToken) return;
+                computerThinking = false;
+                if (!session.isActive() || move == 0) return;
+                int from = Move.from(move), to = Move.to(move);
+                animatePiece(from >>> 3, from & 7, to >>> 3, to & 7, Move.promotion(move));
+            });
+        }, "chess-engine");
+        t.setDaemon(true);
+        t.start();
+    }
 
-        if(inCheck) ResourceManager.playSound("check.wav");
+    // 게임이 끝나거나 창을 닫을 때: 진행 중인 탐색을 멈추고 탐색 스레드도 정리한다
+    private void stopComputer() {
+        searchToken++;
+        if (search != null) search.shutdown();
+        search = null;
+        computerThinking = false;
+    }
 
-        if(inCheck && !canMove) gameOver(false, "");
-        else if(!inCheck && !canMove) {
-            addLog("Draw (Stalemate)", logic.getCurrentPlayer());
-            gameOver(true, "Stalemate");
-        }
-        else if(inCheck) {
-            addLog("CHECK!", logic.getCurrentPlayer());
-            showCheckDialog(logic.getCurrentPlayer());
-        }
+    // ==================== 무르기(Undo) 로직 ====================
+    private void takeBack() {
+        if (isAnimating || computerThinking) return;
+        if (client != null) { client.undo(remoteId); return; }   // UNDONE이 오면 그만큼 무른다
+        resetSelection();
+        session.takeBack();
     }
 
     // ==================== 유틸리티 및 갱신 ====================
 
     private void updateBoardDisplay() {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                JButton square = squares[r][c];
-                Piece p = logic.getPieceAt(r, c);
-
-                if ((r + c) % 2 == 0) square.setBackground(new Color(240, 230, 210));
-                else square.setBackground(new Color(122, 111, 93));
-
-                if (r == selectedRow && c == selectedCol) square.setBackground(new Color(100, 200, 100));
-                for(Point pt : validMoves) {
-                    if(pt.x == r && pt.y == c) {
-                        if(logic.getPieceAt(r,c) != null) square.setBackground(new Color(200, 100, 100));
-                        else square.setBackground(new Color(220, 220, 100));
-                    }
-                }
-
-                if(p instanceof King) {
-                    boolean isWhite = p.isWhite();
-                    if((isWhite && logic.getCurrentPlayer().equals("WHITE") && logic.isKingInCheck("WHITE")) ||
-                            (!isWhite && logic.getCurrentPlayer().equals("BLACK") && logic.isKingInCheck("BLACK"))) {
-                        square.setBackground(new Color(255, 80, 80));
-                    }
-                }
-
-                if (p != null) {
-                    ImageIcon icon = ResourceManager.getImage(p.getImageName());
-                    if (icon != null) {
-                        square.setIcon(icon);
-                        square.setText("");
-                    } else {
-                        square.setIcon(null);
-                        square.setText(UNICODE_PIECES.get(p.getImageName()));
-                        square.setFont(new Font("Arial Unicode MS", Font.PLAIN, SQUARE_SIZE/2));
-                        square.setForeground(p.isWhite() ? Color.WHITE : Color.BLACK);
-                    }
-                } else {
-                    square.setIcon(null);
-                    square.setText("");
-                }
-            }
-        }
+        // 체크 표시는 판정 결과가 오면 붙는다
+        PositionStatus status = session.getStatus();
+        int checkSquare = status == null ? -1 : status.getCheckSquare();
+        boardView.update(selectedRow == -1 ? -1 : selectedRow * 8 + selectedCol, validTargets, checkSquare, -1);
     }
 
-    private void addCapturedPiece(String player, String pieceName) {
-        JPanel targetPanel = player.equals("BLACK") ? capturedBlackPanel : capturedWhitePanel;
-        ImageIcon icon = ResourceManager.getImage(pieceName);
+    private void addCapturedPiece(boolean byWhite, Piece piece) {
+        JPanel targetPanel = byWhite ? capturedWhitePanel : capturedBlackPanel;
+        Image sprite = ResourceManager.getSprite(piece.getImageName(), 35, capturedSpritesReady);
         JLabel pieceLabel = new JLabel();
-        if (icon != null) {
-            Image smallImg = icon.getImage().getScaledInstance(35, 35, Image.SCALE_SMOOTH);
-            pieceLabel.setIcon(new ImageIcon(smallImg));
+        if (sprite != null) {
+            pieceLabel.setIcon(new ImageIcon(sprite));
         } else {
-            pieceLabel.setText(UNICODE_PIECES.get(pieceName));
+            pieceLabel.setText(GameSession.symbol(piece));   // 유니코드 fallback
         }
         targetPanel.add(pieceLabel);
         targetPanel.revalidate(); targetPanel.repaint();
@@ -512,10 +492,9 @@ public class MainGame extends JFrame {
             btn.setContentAreaFilled(false);
             btn.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
 
-            ImageIcon icon = ResourceManager.getImage(pieceName);
-            if (icon != null) {
-                Image scaled = icon.getImage().getScaledInstance(70, 70, Image.SCALE_SMOOTH);
-                btn.setIcon(new ImageIcon(scaled));
+            Image sprite = ResourceManager.getSprite(pieceName, 70);
+            if (sprite != null) {
+                btn.setIcon(new ImageIcon(sprite));
             } else {
                 btn.setText(type);
                 btn.setForeground(player.equals("BLACK") ? Color.WHITE : Color.BLACK);
@@ -565,10 +544,13 @@ public class MainGame extends JFrame {
         d.setLocationRelativeTo(this);
 
         JPanel p = new JPanel(new GridBagLayout()) {
+            private Image bg;
+            {
+                ResourceManager.getDialogImage(imgName, img -> { bg = img; repaint(); });
+            }
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                Image bg = ResourceManager.getDialogImage(imgName);
                 if (bg != null && bg.getWidth(null) > 0) {
                     g.drawImage(bg, 0, 0, getWidth(), getHeight(), this);
                 } else {
@@ -618,10 +600,13 @@ public class MainGame extends JFrame {
         d.setLocationRelativeTo(this);
 
         JPanel p = new JPanel(new GridBagLayout()) {
+            private Image bg;
+            {
+                ResourceManager.getDialogImage(fileName, img -> { bg = img; repaint(); });
+            }
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
-                Image bg = ResourceManager.getDialogImage(fileName);
                 if (bg != null && bg.getWidth(null) > 0) {
                     g.drawImage(bg, 0, 0, getWidth(), getHeight(), this);
                 } else {
@@ -653,149 +638,119 @@ public class MainGame extends JFrame {
 
     // ==================== 유틸리티 ====================
 
-    private void resetSelection() { selectedRow = -1; selectedCol = -1; validMoves.clear(); }
-    private void addLog(String msg, String player) { if(player.equals("WHITE")) logWhiteArea.append(msg+"\n"); else logBlackArea.append(msg+"\n"); }
-    private void timeOutGameOver(String l) { gameOver(false, ""); JOptionPane.showMessageDialog(this, l + " TIME OUT!"); }
-    private boolean isValidMoveInList(int r, int c) { for(Point p : validMoves) if(p.x==r && p.y==c) return true; return false; }
-    private String getChessNotation(int r, int c) { return ""+(char)('a'+c)+(8-r); }
-    private String formatTime(int s) { return String.format("%02d:%02d", s/60, s%60); }
-
-    private void startGameThread() {
-        if(isThreadRunning) return; isThreadRunning = true;
-        gameThread = new Thread(() -> {
-            while(isThreadRunning && gameActive) {
-                try { Thread.sleep(1000); } catch(Exception e) {}
-                SwingUtilities.invokeLater(() -> {
-                    if(!gameActive) return;
-                    if(logic.getCurrentPlayer().equals("WHITE")) { timerWhite--; if(timerWhite<=0) timeOutGameOver("WHITE"); else timerWhiteLabel.setText(formatTime(timerWhite)); }
-                    else { timerBlack--; if(timerBlack<=0) timeOutGameOver("BLACK"); else timerBlackLabel.setText(formatTime(timerBlack)); }
-                });
-            }
-        });
-        gameThread.start();
-    }
+    private void resetSelection() { selectedRow = -1; selectedCol = -1; validTargets = 0L; }
+    private String formatTime(long millis) { long s = GameClock.displaySeconds(millis); return String.format("%02d:%02d", s/60, s%60); }
 
     private void saveGameAndExit() {
-        try (BufferedWriter w = new BufferedWriter(new FileWriter("saved_game.txt"))) {
-            // 1. 기본 정보
-            w.write(logic.getCurrentPlayer() + "\n");
-            w.write(timerWhite + "\n");
-            w.write(timerBlack + "\n");
-
-            // 2. 보드 상태
-            for (int r = 0; r < 8; r++) {
-                for (int c = 0; c < 8; c++) {
-                    Piece p = logic.getPieceAt(r, c);
-                    w.write((p == null ? "null" : p.getImageName()) + ",");
-                }
-                w.write("\n");
-            }
-
-            // 3. 로그 텍스트
-            String whiteLog = logWhiteArea.getText().replace("\n", "%%%");
-            String blackLog = logBlackArea.getText().replace("\n", "%%%");
-
-            w.write((whiteLog.isEmpty() ? "EMPTY" : whiteLog) + "\n");
-            w.write((blackLog.isEmpty() ? "EMPTY" : blackLog) + "\n");
-
-            // [수정] 알림창 코드 삭제됨 -> 바로 종료 및 메뉴 이동
-            isThreadRunning = false;
+        if (client != null) {
+            client.leave(remoteId);
+            client.close();
+            client = null;
+            session.close();
+            dispose();
+            new MainMenu();
+            return;
+        }
+        try {
+            session.save();
+            stopComputer();
             dispose();
             new MainMenu();
-
         } catch (Exception e) {
             // 에러 날 때만 알려줌
             JOptionPane.showMessageDialog(this, "저장 실패: " + e.getMessage());
         }
     }
 
-    private void loadGame() {
-        try (BufferedReader r = new BufferedReader(new FileReader("saved_game.txt"))) {
-            // 1. 기본 정보 로드
-            logic.setCurrentPlayer(r.readLine());
-            timerWhite = Integer.parseInt(r.readLine());
-            timerBlack = Integer.parseInt(r.readLine());
-
-            // 2. 보드 상태 로드
-            for (int row = 0; row < 8; row++) {
-                String[] line = r.readLine().split(",");
-                for (int col = 0; col < 8; col++) {
-                    if (!line[col].equals("null")) {
-                        boolean w = line[col].startsWith("White");
-                        String t = line[col].substring(5);
-                        logic.setPiece(row, col, logic.createPiece(w, t));
-                    } else {
-                        logic.setPiece(row, col, null); // 빈 칸은 확실히 지우기
-                    }
-                }
+    // ==================== 서버 대국 ====================
+    private void startRemote(GameClient c) {
+        client = c;
+        saveBtn.setText("Leave & Main Menu");
+        session.setAutosave(false);
+        session.start(false);
+        c.start(new GameClient.Listener() {
+            @Override
+            public void gameStarted(int id, String[] moves) { SwingUtilities.invokeLater(() -> remoteId = id); }
+            @Override
+            public void moved(int id, int ply, String move, long whiteMillis, long blackMillis) {
+                SwingUtilities.invokeLater(() -> onRemoteMove(ply, move, whiteMillis, blackMillis));
             }
+            @Override
+            public void undone(int id, int ply, long whiteMillis, long blackMillis) {
+                SwingUtilities.invokeLater(() -> onRemoteUndo(ply, whiteMillis, blackMillis));
+            }
+            @Override
+            public void ended(int id, int result, String reason) { SwingUtilities.invokeLater(() -> session.end(result, reason)); }
+            @Override
+            public void error(String message) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(MainGame.this, "서버 오류: " + message));
+            }
+            @Override
+            public void disconnected() {
+                SwingUtilities.invokeLater(() -> {
+                    if (client == null) return;
+                    client = null;
+                    remoteId = -1;
+                    remoteMoves.clear();
+                    saveBtn.setText("Save & Main Menu");
+                    JOptionPane.showMessageDialog(MainGame.this, "서버 연결이 끊겼습니다. 이 판은 이 창에서 이어서 둡니다.");
+                });
+            }
+        });
+        c.newGame(CLOCK_MILLIS, INCREMENT_MILLIS);
+    }
 
-            // 3. [추가된 부분] 로그 텍스트 복구
-            String whiteLog = r.readLine();
-            String blackLog = r.readLine();
-
-            if (whiteLog != null && !whiteLog.equals("EMPTY"))
-                logWhiteArea.setText(whiteLog.replace("%%%", "\n"));
-            else
-                logWhiteArea.setText("");
+    private void onRemoteMove(int ply, String text, long whiteMillis, long blackMillis) {
+        remoteMoves.add(new RemoteMove(ply, text));
+        applyRemoteMoves();
+        session.syncClock(whiteMillis, blackMillis);
+    }
 
-            if (blackLog != null && !blackLog.equals("EMPTY"))
-                logBlackArea.setText(blackLog.replace("%%%", "\n"));
-            else
-                logBlackArea.setText("");
+    // 애니메이션이 끝나고 판정이 나와 있을 때만 둘 수 있으므로, 그때마다 (finalizeMove, onStatus) 쌓인 수를 둔다.
+    // 이 창에서 보낸 수의 확인이면 버리고, 같은 자리에 서버가 다른 수를 받았으면 (동시에 둔 경우) 여기서 둔 수를 무르고 서버를 따른다
+    private void applyRemoteMoves() {
+        while (!remoteMoves.isEmpty() && !isAnimating && session.getStatus() != null) {
+            RemoteMove m = remoteMoves.peek();
+            if (m.ply <= logic.getPly()) {
+                if (Move.toString(logic.getMoveAt(m.ply - 1)).equals(m.text)) remoteMoves.poll();
+                else if (!session.takeBack()) remoteMoves.poll();   // 무르면 판정을 다시 기다린다
+                continue;
+            }
+            remoteMoves.poll();
+            if (m.ply != logic.getPly() + 1) continue;
+            int move = Move.parse(logic, m.text);
+            if (move != 0) {
+                resetSelection();
+                session.play(move);
+            }
+        }
+    }
 
-            // 4. [추가된 부분] 잡은 기물 패널 복구 (계산 로직 호출)
-            refreshCapturedPanels();
+    private void onRemoteUndo(int ply, long whiteMillis, long blackMillis) {
+        remoteMoves.removeIf(m -> m.ply > ply);   // 무르기 전에 온 수 중 물린 것은 두지 않는다
+        applyRemoteMoves();
+        resetSelection();
+        while (logic.getPly() > ply && session.takeBack()) { }
+        session.syncClock(whiteMillis, blackMillis);
+    }
 
-            // UI 갱신
-            updateBoardDisplay();
-            timerWhiteLabel.setText(formatTime(timerWhite));
-            timerBlackLabel.setText(formatTime(timerBlack));
+    private void refreshLogs() {
+        logWhiteArea.setText(logText(session.getLog(true)));
+        logBlackArea.setText(logText(session.getLog(false)));
+    }
 
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "불러오기 실패 (새 게임 시작): " + e.getMessage());
-            logic.initializeGame();
-            updateBoardDisplay();
-        }
+    private static String logText(java.util.List<String> lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) sb.append(line).append('\n');
+        return sb.toString();
     }
+
+    // 잡은 쪽 패널에 잡힌 기물을 차례대로 놓는다
     private void refreshCapturedPanels() {
-        // 1. 패널 초기화
         capturedBlackPanel.removeAll();
         capturedWhitePanel.removeAll();
-
-        // 2. 전체 기물 리스트 정의 (원래 있어야 할 기물들)
-        ArrayList<String> allWhitePieces = new ArrayList<>();
-        ArrayList<String> allBlackPieces = new ArrayList<>();
-
-        String[] types = {"Rook", "Knight", "Bishop", "Queen", "King", "Bishop", "Knight", "Rook"};
-        for(String t : types) {
-            allWhitePieces.add("White"+t);
-            allBlackPieces.add("Black"+t);
-        }
-        for(int i=0; i<8; i++) {
-            allWhitePieces.add("WhitePawn");
-            allBlackPieces.add("BlackPawn");
-        }
-
-        // 3. 현재 보드에 살아있는 기물들을 리스트에서 제거 (소거법)
-        for(int r=0; r<8; r++) {
-            for(int c=0; c<8; c++) {
-                Piece p = logic.getPieceAt(r, c);
-                if(p != null) {
-                    if(p.isWhite()) allWhitePieces.remove(p.getImageName());
-                    else allBlackPieces.remove(p.getImageName());
-                }
-            }
-        }
-
-        // 4. [핵심 수정] 리스트에 남은 것(=잡힌 것)을 상대방 패널에 추가
-        // 없어진 백 기물 -> 흑이 잡았으므로 BLACK 패널에 추가
-        for(String piece : allWhitePieces) addCapturedPiece("BLACK", piece);
-
-        // 없어진 흑 기물 -> 백이 잡았으므로 WHITE 패널에 추가
-        for(String piece : allBlackPieces) addCapturedPiece("WHITE", piece);
-
-        // 5. 화면 갱신
+        for (Piece piece : session.getCaptured(true)) addCapturedPiece(true, piece);
+        for (Piece piece : session.getCaptured(false)) addCapturedPiece(false, piece);
         capturedBlackPanel.revalidate(); capturedBlackPanel.repaint();
         capturedWhitePanel.revalidate(); capturedWhitePanel.repaint();
     }
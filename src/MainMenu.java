@@ -3,7 +3,6 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.File;
 
 public class MainMenu extends JFrame {
     private int WINDOW_WIDTH = 800;
@@ -45,18 +44,25 @@ public class MainMenu extends JFrame {
         titleLabel.setForeground(new Color(240, 230, 210));
         titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
-        // [수정] 버튼 3개 (새게임, 불러오기, 종료)
+        // [수정] 버튼 5개 (새게임, 컴퓨터 대전, 서버 대국, 불러오기, 종료)
         JButton newGameButton = createStyledButton("NEW GAME");
+        JButton computerButton = createStyledButton("VS COMPUTER");
+        JButton onlineButton = createStyledButton("SERVER GAME");
         JButton loadGameButton = createStyledButton("LOAD GAME");
         JButton exitButton = createStyledButton("EXIT");
 
         // [로직] 새 게임 시작 (false 전달)
         newGameButton.addActionListener(e -> startGame(false));
 
+        // [로직] 컴퓨터(흑)와 새 게임
+        computerButton.addActionListener(e -> startGame(false, true));
+
+        // [로직] 로컬 대국 서버(GameServer)에 새 판을 열고 이 창에서 둔다
+        onlineButton.addActionListener(e -> startOnlineGame());
+
         // [로직] 저장된 게임 불러오기 (true 전달)
         loadGameButton.addActionListener(e -> {
-            File saveFile = new File("saved_game.txt");
-            if (saveFile.exists()) {
+            if (SaveFile.exists()) {
                 startGame(true);
             } else {
                 JOptionPane.showMessageDialog(this, "저장된 게임 파일이 없습니다.");
@@ -70,6 +76,10 @@ public class MainMenu extends JFrame {
         contentPanel.add(Box.createRigidArea(new Dimension(0, 60)));
         contentPanel.add(newGameButton);
         contentPanel.add(Box.createRigidArea(new Dimension(0, 20)));
+        contentPanel.add(computerButton);
+        contentPanel.add(Box.createRigidArea(new Dimension(0, 20)));
+        contentPanel.add(onlineButton);
+        contentPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         contentPanel.add(loadGameButton); // 추가된 버튼
         contentPanel.add(Box.createRigidArea(new Dimension(0, 20)));
         contentPanel.add(exitButton);
@@ -114,15 +124,30 @@ public class MainMenu extends JFrame {
         return button;
     }
 
-    private void startGame(boolean loadFromSave) {
+    private void startGame(boolean loadFromSave) { startGame(loadFromSave, false); }
+
+    private void startGame(boolean loadFromSave, boolean vsComputer) {
         this.dispose(); // 메뉴 창 닫기
         SwingUtilities.invokeLater(() -> {
-            // MainGame에 '불러오기 여부'를 전달
-            new MainGame(loadFromSave);
+            // MainGame에 '불러오기 여부'와 '컴퓨터 대전 여부'를 전달
+            new MainGame(loadFromSave, vsComputer);
         });
     }
 
+    private void startOnlineGame() {
+        GameClient client;
+        try {
+            client = new GameClient(GameServer.DEFAULT_ADDRESS);
+        } catch (java.io.IOException e) {
+            JOptionPane.showMessageDialog(this, "대국 서버에 연결할 수 없습니다: " + e.getMessage());
+            return;
+        }
+        this.dispose();
+        SwingUtilities.invokeLater(() -> new MainGame(client));
+    }
+
     public static void main(String[] args) {
+        ResourceManager.preloadSounds();
         SwingUtilities.invokeLater(MainMenu::new);
     }
 }
\ No newline at end of file
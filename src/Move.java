@@ -0,0 +1,45 @@
+// --- 수 인코딩 ---
+// 수 하나를 int 하나에 담는다. 객체를 만들지 않고 int[] 버퍼에 그대로 쌓을 수 있다.
+//   비트 0~5   출발 칸 (r * 8 + c)
+//   비트 6~11  도착 칸
+//   비트 12~14 승진 기물 종류 (0 = 승진 아님, Piece.KNIGHT ~ Piece.QUEEN)
+//   비트 15~   플래그
+final class Move {
+    static final int CAPTURE = 1 << 15;
+    static final int DOUBLE_PUSH = 1 << 16;
+    static final int EN_PASSANT = 1 << 17;
+    static final int CASTLE = 1 << 18;
+
+    private Move() {}
+
+    static int of(int from, int to, int promotion, int flags) { return from | (to << 6) | (promotion << 12) | flags; }
+    static int from(int move) { return move & 63; }
+    static int to(int move) { return (move >>> 6) & 63; }
+    static int promotion(int move) { return (move >>> 12) & 7; }
+    static boolean isCapture(int move) { return (move & CAPTURE) != 0; }
+    static boolean isEnPassant(int move) { return (move & EN_PASSANT) != 0; }
+    static boolean isCastle(int move) { return (move & CASTLE) != 0; }
+    static boolean isDoublePush(int move) { return (move & DOUBLE_PUSH) != 0; }
+
+    // 앙파상으로 잡히는 폰의 칸 = 출발 칸의 행 + 도착 칸의 열
+    static int captureSquare(int move) { return isEnPassant(move) ? (from(move) & ~7) | (to(move) & 7) : to(move); }
+
+    static String toString(int move) {
+        String s = square(from(move)) + square(to(move));
+        if (promotion(move) != 0) s += "nbrq".charAt(promotion(move) - 1);
+        return s;
+    }
+    // "e2e4", "e7e8q" -> 지금 국면의 수 (플래그 포함). 형식이 틀렸거나 둘 수 없으면 0
+    static int parse(ChessLogic logic, String text) {
+        if (text.length() != 4 && text.length() != 5) return 0;
+        int from = parseSquare(text, 0), to = parseSquare(text, 2);
+        int kind = text.length() == 5 ? "nbrq".indexOf(text.charAt(4)) : -1;   // 승진 말 (없으면 -1)
+        if (from < 0 || to < 0 || (text.length() == 5 && kind < 0)) return 0;
+        return logic.findMove(from, to, kind + 1);
+    }
+    private static int parseSquare(String text, int i) {
+        int c = text.charAt(i) - 'a', rank = text.charAt(i + 1) - '1';
+        return c < 0 || c > 7 || rank < 0 || rank > 7 ? -1 : (7 - rank) * 8 + c;
+    }
+    static String square(int sq) { return "" + (char) ('a' + (sq & 7)) + (8 - (sq >>> 3)); }
+}
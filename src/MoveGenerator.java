@@ -0,0 +1,101 @@
+// --- 수 생성기 ---
+// 실제로 갈 수 있는 칸만 비트보드로 뽑아서 호출자가 넘겨준 int[] 버퍼에 채운다.
+// 자기 킹이 체크에 남는지는 보지 않는다 (pseudo-legal). 합법 여부는 ChessLogic에서 거른다.
+final class MoveGenerator {
+    // 캐슬링 권리 비트
+    static final int WHITE_KINGSIDE = 1, WHITE_QUEENSIDE = 2, BLACK_KINGSIDE = 4, BLACK_QUEENSIDE = 8;
+
+    private MoveGenerator() {}
+
+    // moves[count]부터 채우고 새 count를 돌려준다. epSquare는 앙파상으로 도착할 칸 (없으면 -1)
+    static int generate(Board board, boolean white, int castlingRights, int epSquare, int[] moves, int count) {
+        long own = board.getColorOccupancy(white);
+        long enemy = board.getColorOccupancy(!white);
+        long occ = board.getOccupied();
+
+        count = generatePawnMoves(board, white, epSquare, enemy, occ, moves, count);
+
+        for (long bb = board.getPieces(white, Piece.KNIGHT); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            count = addMoves(from, Attacks.KNIGHT[from] & ~own, enemy, moves, count);
+        }
+        for (long bb = board.getPieces(white, Piece.BISHOP); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            count = addMoves(from, Attacks.bishop(from, occ) & ~own, enemy, moves, count);
+        }
+        for (long bb = board.getPieces(white, Piece.ROOK); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            count = addMoves(from, Attacks.rook(from, occ) & ~own, enemy, moves, count);
+        }
+        for (long bb = board.getPieces(white, Piece.QUEEN); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            count = addMoves(from, Attacks.queen(from, occ) & ~own, enemy, moves, count);
+        }
+        for (long bb = board.getPieces(white, Piece.KING); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            count = addMoves(from, Attacks.KING[from] & ~own, enemy, moves, count);
+        }
+        return generateCastling(board, white, castlingRights, occ, moves, count);
+    }
+
+    private static int addMoves(int from, long targets, long enemy, int[] moves, int count) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[count++] = Move.of(from, to, 0, (enemy & (1L << to)) != 0 ? Move.CAPTURE : 0);
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(Board board, boolean white, int epSquare, long enemy, long occ, int[] moves, int count) {
+        int step = white ? -8 : 8;
+        int startRow = white ? 6 : 1;
+        int lastRow = white ? 0 : 7;
+        long[] attacks = Attacks.PAWN[white ? 0 : 1];
+        long epBit = epSquare >= 0 ? 1L << epSquare : 0L;
+        for (long bb = board.getPieces(white, Piece.PAWN); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            int one = from + step;
+            if ((occ & (1L << one)) == 0) {
+                count = addPawnMove(from, one, 0, lastRow, moves, count);
+                int two = one + step;
+                if ((from >>> 3) == startRow && (occ & (1L << two)) == 0) moves[count++] = Move.of(from, two, 0, Move.DOUBLE_PUSH);
+            }
+            for (long caps = attacks[from] & enemy; caps != 0; caps &= caps - 1) {
+                count = addPawnMove(from, Long.numberOfTrailingZeros(caps), Move.CAPTURE, lastRow, moves, count);
+            }
+            if ((attacks[from] & epBit) != 0) moves[count++] = Move.of(from, epSquare, 0, Move.CAPTURE | Move.EN_PASSANT);
+        }
+        return count;
+    }
+
+    private static int addPawnMove(int from, int to, int flags, int lastRow, int[] moves, int count) {
+        if ((to >>> 3) != lastRow) {
+            moves[count++] = Move.of(from, to, 0, flags);
+            return count;
+        }
+        for (int promo = Piece.QUEEN; promo >= Piece.KNIGHT; promo--) moves[count++] = Move.of(from, to, promo, flags);
+        return count;
+    }
+
+    // 킹과 룩이 제자리에 있고, 사이가 비어 있고, 킹이 지나가는 칸이 공격받지 않을 때만 생성
+    private static int generateCastling(Board board, boolean white, int rights, long occ, int[] moves, int count) {
+        int kingSq = white ? 60 : 4;
+        long rooks = board.getPieces(white, Piece.ROOK);
+        if ((board.getPieces(white, Piece.KING) & (1L << kingSq)) == 0) return count;
+        int kingSide = white ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenSide = white ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        boolean kingSideOk = (rights & kingSide) != 0 && (rooks & (1L << (kingSq + 3))) != 0
+                && (occ & (3L << (kingSq + 1))) == 0;
+        boolean queenSideOk = (rights & queenSide) != 0 && (rooks & (1L << (kingSq - 4))) != 0
+                && (occ & (7L << (kingSq - 3))) == 0;
+        if (!kingSideOk && !queenSideOk) return count;
+        if (Attacks.isAttacked(board, kingSq, !white)) return count;
+        if (kingSideOk && !Attacks.isAttacked(board, kingSq + 1, !white) && !Attacks.isAttacked(board, kingSq + 2, !white)) {
+            moves[count++] = Move.of(kingSq, kingSq + 2, 0, Move.CASTLE);
+        }
+        if (queenSideOk && !Attacks.isAttacked(board, kingSq - 1, !white) && !Attacks.isAttacked(board, kingSq - 2, !white)) {
+            moves[count++] = Move.of(kingSq, kingSq - 2, 0, Move.CASTLE);
+        }
+        return count;
+    }
+}
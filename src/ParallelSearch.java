@@ -0,0 +1,113 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// --- 병렬 탐색 (Lazy SMP) ---
+// 스레드마다 자기 Engine(국면 복사본)으로 같은 국면을 탐색하고, 전치 표 하나만 공유한다.
+// 한 스레드가 남긴 결과를 다른 스레드가 표에서 주워 쓰면서 자연스럽게 일이 나뉜다.
+// 결과는 호출한 스레드(주 탐색)의 것을 쓰고, 주 탐색이 끝나면 보조 스레드를 멈춘다.
+class ParallelSearch {
+    private final int threads;
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+    private final Object lock = new Object();   // engines 바꾸기 + 보조 스레드에 넘기기와 shutdown을 서로 막는다
+    private volatile Engine[] engines = new Engine[0];
+    private boolean shutdown;   // lock을 잡고 다룬다
+    private long lastNodes;
+    private int lastDepth;
+    private int lastFailures;   // 지난 탐색에서 예외로 죽은 보조 스레드 수
+
+    ParallelSearch(int threads, TranspositionTable table) {
+        this.threads = Math.max(1, threads);
+        this.table = table;
+        helpers = this.threads > 1 ? Executors.newFixedThreadPool(this.threads - 1, r -> {
+            Thread t = new Thread(r, "chess-search-helper");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    // shutdown 뒤에 부르면 (다른 스레드가 막 shutdown한 경우 포함) 탐색하지 않고 0
+    synchronized int findBestMove(ChessLogic position, long budgetMillis, int maxDepth) {
+        Engine[] workers = new Engine[threads];
+        for (int i = 0; i < threads; i++) workers[i] = new Engine(position, table);
+        Future<?>[] running = new Future<?>[threads - 1];
+        // shutdown은 같은 lock 안에서 표시하고 멈추므로, 여기서 넘긴 일은 풀이 닫히기 전에 들어가고 새 engines로 멈춰진다
+        synchronized (lock) {
+            if (shutdown) return 0;
+            engines = workers;
+            table.newSearch();   // 나이는 탐색마다 한 번만 올린다. 스레드마다 올리면 서로의 항목을 오래된 것으로 보고 덮어쓴다
+            for (int i = 1; i < threads; i++) {
+                Engine helper = workers[i];
+                int startDepth = 1 + (i & 1);
+                running[i - 1] = helpers.submit(() -> helper.findBestMove(budgetMillis, maxDepth, startDepth));
+            }
+        }
+        int best = workers[0].findBestMove(budgetMillis, maxDepth);
+        for (int i = 1; i < threads; i++) workers[i].stop();
+        int failures = 0;
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();   // 기다리기만 그만둔다. 보조 스레드에는 이미 멈추라고 했다
+                break;
+            } catch (ExecutionException e) {
+                // 결과는 주 탐색의 것이라 그대로 쓰지만, 보조 스레드가 죽은 것은 알린다
+                failures++;
+                System.err.println("보조 탐색 실패: " + e.getCause());
+            } catch (CancellationException e) {
+                // shutdown으로 취소됐다
+            }
+        }
+        lastFailures = failures;
+        long nodes = 0;
+        for (Engine e : workers) nodes += e.getNodes();
+        lastNodes = nodes;
+        lastDepth = workers[0].getCompletedDepth();
+        return best;
+    }
+
+    // 다른 스레드에서 불러도 된다
+    void stop() { for (Engine e : engines) e.stop(); }
+
+    // 다른 스레드(EDT)에서 탐색이 시작되는 중에 불러도 된다
+    void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            stop();
+        }
+        if (helpers != null) helpers.shutdownNow();
+    }
+
+    int getThreads() { return threads; }
+    long getLastNodes() { return lastNodes; }
+    int getLastDepth() { return lastDepth; }
+    int getLastFailures() { return lastFailures; }
+
+    // 스레드 수별 노드/초 측정: java ParallelSearch [최대 스레드 수] [국면당 ms] [전치 표 MB]
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 5000;
+        int hashMb = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        ChessLogic position = new ChessLogic();
+        new Engine(position, new TranspositionTable(16)).findBestMove(millis / 2, 64); // JIT 예열
+
+        System.out.printf("%-8s %-14s %-14s %-8s %-8s%n", "threads", "nodes", "nodes/sec", "depth", "speedup");
+        double baseNps = 0;
+        for (int n = 1; n <= maxThreads; n *= 2) {
+            ParallelSearch search = new ParallelSearch(n, new TranspositionTable(hashMb));
+            long start = System.nanoTime();
+            search.findBestMove(position, millis, 64);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double nps = search.getLastNodes() / seconds;
+            if (n == 1) baseNps = nps;
+            System.out.printf("%-8d %-14d %-14.0f %-8d %-8.2f%n", n, search.getLastNodes(), nps, search.getLastDepth(), nps / baseNps);
+            if (search.getLastFailures() > 0) System.out.println("  보조 스레드 " + search.getLastFailures() + "개가 예외로 끝났습니다 (노드 수가 실제보다 적다)");
+            search.shutdown();
+            if (n < maxThreads && n * 2 > maxThreads) n = maxThreads / 2;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// --- Perft (수 경로 개수 세기) ---
+// 주어진 깊이까지 나올 수 있는 모든 수순의 개수를 세서 알려진 값과 비교한다.
+// 수 생성 규칙(폰, 앙파상, 캐슬링, 승진)을 고칠 때마다 정확성과 속도를 함께 확인하는 용도.
+//   java Perft                     표준 국면 모음 실행
+//   java Perft <깊이> [FEN]         한 국면만 세기
+//   java Perft divide <깊이> [FEN]  루트 수마다 개수 나눠서 출력
+//   -t <스레드 수>                   루트 수를 스레드에 나눠서 센다
+public class Perft {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // {FEN, 깊이 1부터의 알려진 노드 수...}
+    private static final String[][] SUITE = {
+            {START, "20", "400", "8902", "197281", "4865609", "119060324"},
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "48", "2039", "97862", "4085603", "193690690"},
+            {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "14", "191", "2812", "43238", "674624", "11030083"},
+            {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", "6", "264", "9467", "422333", "15833292"},
+            {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", "44", "1486", "62379", "2103487", "89941194"},
+            {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", "46", "2079", "89890", "3894594", "164075551"},
+    };
+    // 기본 실행 깊이 (수 초 안에 끝나는 정도)
+    private static final int[] SUITE_DEPTH = {5, 4, 5, 4, 4, 4};
+
+    private final ChessLogic logic;
+    private final int[][] buffers = new int[64][ChessLogic.MAX_MOVES];
+
+    Perft(ChessLogic logic) { this.logic = logic; }
+
+    long count(int depth) {
+        if (depth == 0) return 1;
+        int[] moves = buffers[depth];
+        int n = logic.generateLegalMoves(moves, 0);
+        if (depth == 1) return n;   // 마지막 깊이는 수 개수만 센다
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            logic.makeMove(moves[i]);
+            total += count(depth - 1);
+            logic.unmakeMove();
+        }
+        return total;
+    }
+
+    // 루트 수마다 복사본을 만들어 스레드 풀에서 센다. divide가 true면 수마다 출력
+    static long countParallel(ChessLogic position, int depth, int threads, boolean divide) throws Exception {
+        int[] rootMoves = new int[ChessLogic.MAX_MOVES];
+        int n = position.generateLegalMoves(rootMoves, 0);
+        if (depth <= 1) {
+            if (divide) for (int i = 0; i < n; i++) System.out.println(Move.toString(rootMoves[i]) + ": 1");
+            return depth == 0 ? 1 : n;
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Long>> results = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                int move = rootMoves[i];
+                results.add(pool.submit(() -> {
+                    ChessLogic copy = new ChessLogic(position);
+                    copy.makeMove(move);
+                    return new Perft(copy).count(depth - 1);
+                }));
+            }
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                long nodes = results.get(i).get();
+                if (divide) System.out.println(Move.toString(rootMoves[i]) + ": " + nodes);
+                total += nodes;
+            }
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = 1;
+        List<String> rest = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-t")) threads = Integer.parseInt(args[++i]);
+            else rest.add(args[i]);
+        }
+        if (rest.isEmpty()) {
+            System.exit(runSuite(threads) ? 0 : 1);
+        }
+        boolean divide = rest.get(0).equals("divide");
+        if (divide) rest.remove(0);
+        int depth = Integer.parseInt(rest.get(0));
+        String fen = rest.size() > 1 ? String.join(" ", rest.subList(1, rest.size())) : START;
+        long start = System.nanoTime();
+        long nodes = countParallel(ChessLogic.fromFen(fen), depth, threads, divide);
+        report("perft " + depth, nodes, System.nanoTime() - start);
+    }
+
+    private static boolean runSuite(int threads) throws Exception {
+        boolean allPassed = true;
+        long totalNodes = 0, totalNanos = 0;
+        for (int i = 0; i < SUITE.length; i++) {
+            String fen = SUITE[i][0];
+            int depth = SUITE_DEPTH[i];
+            long expected = Long.parseLong(SUITE[i][depth]);
+            long start = System.nanoTime();
+            long nodes = countParallel(ChessLogic.fromFen(fen), depth, threads, false);
+            long nanos = System.nanoTime() - start;
+            totalNodes += nodes; totalNanos += nanos;
+            boolean ok = nodes == expected;
+            allPassed &= ok;
+            report((ok ? "OK   " : "FAIL ") + fen + " d" + depth + (ok ? "" : " (expected " + expected + ")"), nodes, nanos);
+        }
+        report(allPassed ? "ALL PASSED" : "FAILED", totalNodes, totalNanos);
+        return allPassed;
+    }
+
+    private static void report(String label, long nodes, long nanos) {
+        System.out.printf("%s  nodes=%d  time=%.3fs  nps=%.0f%n", label, nodes, nanos / 1e9, nodes / (nanos / 1e9));
+    }
+}
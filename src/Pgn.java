@@ -0,0 +1,417 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// --- PGN (기보 표준 형식) ---
+// SAN 수 표기 만들기 / 읽기, 큰 PGN 파일을 한 판씩 읽는 Reader, 내보내는 Writer.
+// Reader는 FileChannel을 고정 크기 버퍼로 읽어 가며 바이트 단위로 처리하므로 파일 크기와 상관없이 메모리는 한 판 분량만 쓴다.
+// 수는 읽으면서 바로 ChessLogic에 두어 보고 int 수로 바꿔 둔다 (주석, 변화수, NAG는 건너뛴다).
+//   java Pgn <파일.pgn>   모든 판을 다시 두어 보고 판 수 / 수 / 오류 / 처리 속도를 출력한다
+final class Pgn {
+    static final Path ARCHIVE = Paths.get("games.pgn");   // 끝난 대국을 덧붙이는 기록 파일
+    private static final String PIECES = "PNBRQK";           // Piece.PAWN ~ Piece.KING 순서
+    private static final String[] ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+
+    private Pgn() {}
+
+    // ==================== SAN ====================
+    // move를 두기 전 국면에서의 SAN ("Nbd7", "exd8=Q+", "O-O#")
+    static String toSan(ChessLogic logic, int move) {
+        return appendSan(new StringBuilder(8), logic, move, new int[ChessLogic.MAX_MOVES]).toString();
+    }
+
+    static StringBuilder appendSan(StringBuilder sb, ChessLogic logic, int move, int[] buffer) {
+        int from = Move.from(move), to = Move.to(move);
+        Piece p = logic.getBoard().getPiece(from);
+        if (Move.isCastle(move)) {
+            sb.append(to > from ? "O-O" : "O-O-O");
+        } else if (p.getKind() == Piece.PAWN) {
+            if (Move.isCapture(move)) sb.append((char) ('a' + (from & 7))).append('x');
+            appendSquare(sb, to);
+            if (Move.promotion(move) != 0) sb.append('=').append(PIECES.charAt(Move.promotion(move)));
+        } else {
+            sb.append(PIECES.charAt(p.getKind()));
+            // 같은 칸으로 갈 수 있는 같은 종류의 기물이 또 있으면 열, 그래도 겹치면 행, 그래도 겹치면 둘 다
+            boolean ambiguous = false, sameFile = false, sameRank = false;
+            int count = logic.generatePseudoMoves(buffer, 0);
+            for (int i = 0; i < count; i++) {
+                int m = buffer[i], f = Move.from(m);
+                if (f == from || Move.to(m) != to || logic.getBoard().getPiece(f).getKind() != p.getKind() || !logic.isLegalMove(m)) continue;
+                ambiguous = true;
+                sameFile |= (f & 7) == (from & 7);
+                sameRank |= (f >>> 3) == (from >>> 3);
+            }
+            if (ambiguous) {
+                if (!sameFile) sb.append((char) ('a' + (from & 7)));
+                else if (!sameRank) sb.append((char) ('8' - (from >>> 3)));
+                else appendSquare(sb, from);
+            }
+            if (Move.isCapture(move)) sb.append('x');
+            appendSquare(sb, to);
+        }
+        logic.makeMove(move);
+        String player = logic.getCurrentPlayer();
+        if (logic.isKingInCheck(player)) sb.append(logic.hasLegalMoves(player) ? '+' : '#');
+        logic.unmakeMove();
+        return sb;
+    }
+
+    static int parseSan(ChessLogic logic, CharSequence san) {
+        return parseSan(logic, san, 0, san.length(), new int[ChessLogic.MAX_MOVES]);
+    }
+
+    // san[start, end)를 지금 국면의 합법 수로 바꾼다. 없거나 둘 이상과 맞으면 0.
+    // 끝의 +, #, !, ?는 무시하고 "0-0", 승진의 '=' 생략("e8Q")도 받는다
+    static int parseSan(ChessLogic logic, CharSequence san, int start, int end, int[] buffer) {
+        while (end > start && "+#!?".indexOf(san.charAt(end - 1)) >= 0) end--;
+        int len = end - start;
+        if (len < 2) return 0;
+        // 의사 합법 수에서 모양이 맞는 것만 골라 합법인지 본다
+        int count = logic.generatePseudoMoves(buffer, 0);
+
+        char first = san.charAt(start);
+        if (first == 'O' || first == '0') {
+            boolean queenSide;
+            if (len == 3 && san.charAt(start + 1) == '-' && san.charAt(start + 2) == first) queenSide = false;
+            else if (len == 5 && san.charAt(start + 1) == '-' && san.charAt(start + 2) == first
+                    && san.charAt(start + 3) == '-' && san.charAt(start + 4) == first) queenSide = true;
+            else return 0;
+            for (int i = 0; i < count; i++) {
+                int m = buffer[i];
+                if (Move.isCastle(m) && (Move.to(m) < Move.from(m)) == queenSide && logic.isLegalMove(m)) return m;
+            }
+            return 0;
+        }
+
+        int kind = Piece.PAWN, i = start;
+        if (first >= 'A' && first <= 'Z') {
+            kind = PIECES.indexOf(first);
+            if (kind <= Piece.PAWN) return 0;
+            i++;
+        }
+        int promotion = 0;
+        char last = san.charAt(end - 1);
+        if (kind == Piece.PAWN && last >= 'A' && last <= 'Z') {
+            promotion = PIECES.indexOf(last);
+            if (promotion <= Piece.PAWN || promotion == Piece.KING) return 0;
+            end--;
+            if (end > i && san.charAt(end - 1) == '=') end--;
+        }
+        if (end - i < 2) return 0;
+        int to = square(san.charAt(end - 2), san.charAt(end - 1));
+        if (to < 0) return 0;
+
+        // 기물 글자와 도착 칸 사이: 구분용 열 / 행과 'x'
+        int fromFile = -1, fromRank = -1;
+        for (int k = i; k < end - 2; k++) {
+            char ch = san.charAt(k);
+            if (ch >= 'a' && ch <= 'h') fromFile = ch - 'a';
+            else if (ch >= '1' && ch <= '8') fromRank = '8' - ch;
+            else if (ch != 'x' && ch != ':' && ch != '-') return 0;
+        }
+
+        int found = 0;
+        for (int k = 0; k < count; k++) {
+            int m = buffer[k], f = Move.from(m);
+            if (Move.to(m) != to || Move.promotion(m) != promotion || Move.isCastle(m)) continue;
+            if (logic.getBoard().getPiece(f).getKind() != kind) continue;
+            if (fromFile >= 0 && (f & 7) != fromFile) continue;
+            if (fromRank >= 0 && (f >>> 3) != fromRank) continue;
+            if (!logic.isLegalMove(m)) continue;
+            if (found != 0) return 0;
+            found = m;
+        }
+        return found;
+    }
+
+    private static void appendSquare(StringBuilder sb, int sq) {
+        sb.append((char) ('a' + (sq & 7))).append((char) ('8' - (sq >>> 3)));
+    }
+
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') return -1;
+        return ('8' - rank) * 8 + (file - 'a');
+    }
+
+    // ==================== 한 판 ====================
+    static final class Game {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        private int[] moves = new int[64];
+        private int count;
+        String result = "*";
+        String error;   // 둘 수 없는 수를 만나면 그 설명. 그때 moves는 그 앞까지
+
+        String getTag(String name) { return tags.get(name); }
+        int getMoveCount() { return count; }
+        int getMove(int i) { return moves[i]; }
+
+        void addMove(int move) {
+            if (count == moves.length) moves = Arrays.copyOf(moves, count * 2);
+            moves[count++] = move;
+        }
+
+        // 시작 국면: FEN 태그가 있으면 그 국면, 없으면 처음 배치
+        ChessLogic start() {
+            String fen = tags.get("FEN");
+            return fen != null ? ChessLogic.fromFen(fen) : new ChessLogic();
+        }
+
+        // 시작 국면에서 모든 수를 둔 국면 (되돌리기 스택에 수순이 남는다)
+        ChessLogic replay() {
+            ChessLogic logic = start();
+            for (int i = 0; i < count; i++) logic.makeMove(moves[i]);
+            return logic;
+        }
+    }
+
+    // ==================== 읽기 ====================
+    // 한 판씩 돌려준다. 태그 값은 UTF-8, 수순은 ASCII로 읽는다
+    static final class Reader implements Closeable {
+        private static final int BUFFER = 1 << 16;
+        private static final int MAX_TOKEN = 255;   // 이보다 긴 토큰(값)은 잘라 낸다
+
+        private final FileChannel channel;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER);
+        private int pushback = -1;
+        private final byte[] value = new byte[MAX_TOKEN];
+        private final StringBuilder token = new StringBuilder(16);
+        private final int[] scratch = new int[ChessLogic.MAX_MOVES];
+        private long games;
+
+        Reader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buf.flip();
+        }
+
+        long getGameCount() { return games; }
+
+        // 다음 판. 더 없으면 null
+        Game next() throws IOException {
+            Game game = null;
+            ChessLogic logic = null;
+            while (true) {
+                int c = skipSpace();
+                if (c < 0) return finish(game);
+                if (c == '[') {
+                    if (game != null && (logic != null || game.error != null)) { pushback = c; return finish(game); }   // 결과 없이 다음 판이 시작됐다
+                    if (game == null) game = new Game();
+                    readTag(game);
+                    continue;
+                }
+                if (game == null) game = new Game();
+                switch (c) {
+                    case '{': skipUntil('}'); continue;
+                    case ';': skipUntil('\n'); continue;
+                    case '(': skipVariation(); continue;
+                    case '$': readToken(c); continue;
+                    default:
+                }
+                readToken(c);
+                if (isResult(token)) {
+                    game.result = token.toString();
+                    return finish(game);
+                }
+                // "12." "12..." 은 건너뛰고, 붙어 있는 "12.e4"는 수만 읽는다
+                int s = 0, n = token.length();
+                while (s < n && token.charAt(s) >= '0' && token.charAt(s) <= '9') s++;
+                if (s < n && token.charAt(s) != '.') s = 0;   // "0-0" 캐슬링
+                while (s < n && token.charAt(s) == '.') s++;
+                if (s == n || game.error != null) continue;
+                if (logic == null) {
+                    try {
+                        logic = game.start();
+                    } catch (IllegalArgumentException e) {
+                        game.error = e.getMessage();
+                        continue;
+                    }
+                }
+                int move = parseSan(logic, token, s, n, scratch);
+                if (move == 0) {
+                    game.error = logic.getFullmoveNumber() + "번째 수 \"" + token.subSequence(s, n) + "\"를 둘 수 없습니다";
+                    continue;
+                }
+                logic.makeMove(move);
+                game.addMove(move);
+            }
+        }
+
+        private Game finish(Game game) {
+            if (game != null) games++;
+            return game;
+        }
+
+        private static boolean isResult(CharSequence t) {
+            return eq(t, "1-0") || eq(t, "0-1") || eq(t, "1/2-1/2") || eq(t, "*");
+        }
+
+        private static boolean eq(CharSequence t, String s) {
+            if (t.length() != s.length()) return false;
+            for (int i = 0; i < s.length(); i++) if (t.charAt(i) != s.charAt(i)) return false;
+            return true;
+        }
+
+        // [이름 "값"] (값 안의 \" 와 \\ 는 이스케이프)
+        private void readTag(Game game) throws IOException {
+            int c = skipSpace();
+            token.setLength(0);
+            while (c > ' ' && c != '"' && c != ']') {
+                if (token.length() < MAX_TOKEN) token.append((char) c);
+                c = read();
+            }
+            String name = token.toString();
+            while (c >= 0 && c != '"' && c != ']') c = read();
+            int len = 0;
+            if (c == '"') {
+                while ((c = read()) >= 0 && c != '"') {
+                    if (c == '\\') c = read();
+                    if (c < 0) break;
+                    if (len < MAX_TOKEN) value[len++] = (byte) c;
+                }
+                while (c >= 0 && c != ']') c = read();
+            }
+            game.tags.put(name, new String(value, 0, len, StandardCharsets.UTF_8));
+        }
+
+        // 공백이나 구분 글자 전까지. 구분 글자는 다음에 다시 읽는다
+        private void readToken(int c) throws IOException {
+            token.setLength(0);
+            while (c > ' ' && "{}()[];".indexOf(c) < 0) {
+                if (token.length() < MAX_TOKEN) token.append((char) c);
+                c = read();
+            }
+            if (c >= 0) pushback = c;
+        }
+
+        private void skipUntil(int end) throws IOException {
+            int c;
+            while ((c = read()) >= 0 && c != end) { }
+        }
+
+        // 변화수는 괄호가 겹칠 수 있고 안에 주석도 올 수 있다
+        private void skipVariation() throws IOException {
+            int depth = 1, c;
+            while (depth > 0 && (c = read()) >= 0) {
+                if (c == '(') depth++;
+                else if (c == ')') depth--;
+                else if (c == '{') skipUntil('}');
+                else if (c == ';') skipUntil('\n');
+            }
+        }
+
+        private int skipSpace() throws IOException {
+            int c;
+            do { c = read(); } while (c >= 0 && c <= ' ');
+            // 줄 맨 앞의 %는 그 줄 전체가 무시할 내용이다
+            if (c == '%') { skipUntil('\n'); return skipSpace(); }
+            return c;
+        }
+
+        private int read() throws IOException {
+            if (pushback >= 0) { int c = pushback; pushback = -1; return c; }
+            if (!buf.hasRemaining()) {
+                buf.clear();
+                int n;
+                do { n = channel.read(buf); } while (n == 0);
+                buf.flip();
+                if (n < 0) return -1;
+            }
+            return buf.get() & 0xFF;
+        }
+
+        @Override
+        public void close() throws IOException { channel.close(); }
+    }
+
+    // ==================== 쓰기 ====================
+    // 내보내기 형식: 일곱 태그를 먼저, 나머지 태그는 넣은 순서대로. 수순은 한 줄 80자 안으로 감싼다
+    static final class Writer implements Closeable {
+        private final java.io.Writer out;
+        private final StringBuilder line = new StringBuilder(96);
+        private final StringBuilder san = new StringBuilder(8);
+        private final int[] scratch = new int[ChessLogic.MAX_MOVES];
+
+        Writer(java.io.Writer out) { this.out = out; }
+
+        void write(Game game) throws IOException {
+            for (String name : ROSTER) writeTag(name, game.tags.getOrDefault(name, name.equals("Result") ? game.result : "?"));
+            for (Map.Entry<String, String> e : game.tags.entrySet()) {
+                if (Arrays.asList(ROSTER).contains(e.getKey())) continue;
+                writeTag(e.getKey(), e.getValue());
+            }
+            out.write('\n');
+
+            ChessLogic logic = game.start();
+            line.setLength(0);
+            for (int i = 0; i < game.getMoveCount(); i++) {
+                int move = game.getMove(i);
+                boolean white = logic.getCurrentPlayer().equals("WHITE");
+                if (white || i == 0) word(logic.getFullmoveNumber() + (white ? "." : "..."));
+                san.setLength(0);
+                appendSan(san, logic, move, scratch);
+                word(san);
+                logic.makeMove(move);
+            }
+            word(game.result);
+            out.write(line.toString());
+            out.write("\n\n");
+        }
+
+        private void writeTag(String name, String value) throws IOException {
+            out.write('[');
+            out.write(name);
+            out.write(" \"");
+            out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+            out.write("\"]\n");
+        }
+
+        private void word(CharSequence w) throws IOException {
+            if (line.length() > 0 && line.length() + 1 + w.length() > 79) {
+                out.write(line.toString());
+                out.write('\n');
+                line.setLength(0);
+            }
+            if (line.length() > 0) line.append(' ');
+            line.append(w);
+        }
+
+        void flush() throws IOException { out.flush(); }
+
+        @Override
+        public void close() throws IOException { out.close(); }
+    }
+
+    // 끝난 대국 하나를 기록 파일 끝에 덧붙인다. 서버처럼 여러 스레드에서 불러도 판이 섞이지 않는다
+    static synchronized void append(Path archive, Game game) throws IOException {
+        try (Writer w = new Writer(Files.newBufferedWriter(archive, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))) {
+            w.write(game);
+        }
+    }
+
+    // 실행: java Pgn <파일.pgn>
+    public static void main(String[] args) throws IOException {
+        long start = System.nanoTime(), moves = 0, errors = 0;
+        try (Reader r = new Reader(Paths.get(args[0]))) {
+            Game g;
+            while ((g = r.next()) != null) {
+                moves += g.getMoveCount();
+                if (g.error != null) {
+                    errors++;
+                    if (errors <= 10) System.err.println("판 " + r.getGameCount() + ": " + g.error);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("games=%d  moves=%d  errors=%d  time=%.2fs  games/s=%.0f  moves/s=%.0f%n",
+                    r.getGameCount(), moves, errors, seconds, r.getGameCount() / seconds, moves / seconds);
+        }
+    }
+}
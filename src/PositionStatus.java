@@ -0,0 +1,126 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// --- 국면 판정 결과 ---
+// 한 국면의 체크 / 메이트 / 스테일메이트 / 무승부 사유와 합법 수 목록. 만든 뒤에는 바뀌지 않으므로
+// 백그라운드 스레드에서 계산해서 EDT로 그대로 넘겨도 된다.
+final class PositionStatus {
+    static final int ONGOING = 0, CHECKMATE = 1, STALEMATE = 2, INSUFFICIENT_MATERIAL = 3, REPETITION = 4;
+
+    private final long key;
+    private final boolean whiteToMove;
+    private final boolean inCheck;
+    private final int result;
+    private final int checkSquare;   // 체크된 킹의 칸, 체크가 아니면 -1
+    private final int[] moves;
+    private final long[] targets = new long[64];   // 출발 칸마다 도착 칸 비트마스크 (승진 수 4개는 한 칸으로 모인다)
+
+    private PositionStatus(long key, boolean whiteToMove, boolean inCheck, int result, int checkSquare, int[] moves) {
+        this.key = key;
+        this.whiteToMove = whiteToMove;
+        this.inCheck = inCheck;
+        this.result = result;
+        this.checkSquare = checkSquare;
+        this.moves = moves;
+        for (int m : moves) targets[Move.from(m)] |= 1L << Move.to(m);
+    }
+
+    // 판정 순서는 예전 checkGameOverState와 같다: 기물 부족 -> 3회 반복 -> 메이트 / 스테일메이트
+    static PositionStatus of(ChessLogic logic) {
+        String player = logic.getCurrentPlayer();
+        boolean white = player.equals("WHITE");
+        int[] buffer = new int[ChessLogic.MAX_MOVES];
+        int count = logic.generateLegalMoves(buffer, 0);
+        boolean inCheck = logic.isKingInCheck(player);
+
+        int result = ONGOING;
+        if (logic.checkInsufficientMaterial()) result = INSUFFICIENT_MATERIAL;
+        else if (logic.checkThreefoldRepetition()) result = REPETITION;
+        else if (count == 0) result = inCheck ? CHECKMATE : STALEMATE;
+
+        long king = logic.getBoard().getPieces(white, Piece.KING);
+        int checkSquare = inCheck && king != 0 ? Long.numberOfTrailingZeros(king) : -1;
+        return new PositionStatus(logic.getPositionKey(), white, inCheck, result, checkSquare, java.util.Arrays.copyOf(buffer, count));
+    }
+
+    long getKey() { return key; }
+    boolean isWhiteToMove() { return whiteToMove; }
+    boolean isCheck() { return inCheck; }
+    int getResult() { return result; }
+    boolean isGameOver() { return result != ONGOING; }
+    boolean isDraw() { return result >= STALEMATE; }
+    int getCheckSquare() { return checkSquare; }
+
+    String getDrawReason() {
+        switch (result) {
+            case STALEMATE: return "Stalemate";
+            case INSUFFICIENT_MATERIAL: return "Insufficient Material";
+            case REPETITION: return "3-fold Repetition";
+            default: return "";
+        }
+    }
+
+    int getMoveCount() { return moves.length; }
+    int getMove(int i) { return moves[i]; }
+
+    // from 칸에서 갈 수 있는 칸 비트마스크
+    long getTargets(int from) { return targets[from]; }
+
+    boolean isLegal(int from, int to) { return (targets[from] & (1L << to)) != 0; }
+}
+
+// --- 차례 끝 판정 작업자 ---
+// 수를 둔 뒤의 판정(합법 수 생성, 반복 검사 등)을 EDT가 아닌 전용 스레드에서 하고 결과만 deliver(화면이면 EDT)로 넘긴다.
+// 결과를 넘긴 뒤에는 상대가 둘 수 있는 수마다 그 다음 국면의 판정을 미리 해 둔다.
+// 실제로 그 수가 두어지면 request가 기다리지 않고 바로 결과를 준다.
+final class StatusWorker {
+    interface Listener { void statusReady(PositionStatus status); }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "position-status");
+        t.setDaemon(true);
+        return t;
+    });
+    // 지금 국면에서 한 수 둔 국면들의 판정 (수순이 같으므로 반복 판정도 그대로 맞다).
+    // request마다 새 맵으로 바꾸므로 늦게 끝난 이전 작업은 버려진 맵에 쓰게 된다
+    private volatile Map<Long, PositionStatus> speculative = new ConcurrentHashMap<>();
+    private volatile int token;
+    private final Executor deliver;
+
+    StatusWorker(Executor deliver) { this.deliver = deliver; }
+
+    // deliver 스레드에서 부른다. listener도 그 스레드에서 불리며, 그 사이 다른 request가 오면 이전 결과는 버린다
+    void request(ChessLogic logic, Listener listener) {
+        int t = ++token;
+        PositionStatus ready = speculative.get(logic.getPositionKey());
+        Map<Long, PositionStatus> children = new ConcurrentHashMap<>();
+        speculative = children;
+        ChessLogic snapshot = new ChessLogic(logic);
+        executor.execute(() -> {
+            PositionStatus status = ready != null ? ready : PositionStatus.of(snapshot);
+            if (ready == null) deliver.execute(() -> { if (t == token) listener.statusReady(status); });
+            speculate(snapshot, status, t, children);
+        });
+        // 미리 해 둔 판정이 있으면 기다리지 않는다 (다음 수 예측은 위에서 이미 맡겼다)
+        if (ready != null) listener.statusReady(ready);
+    }
+
+    // 무르기나 불러오기처럼 수순이 이어지지 않을 때: 미리 해 둔 판정은 쓸 수 없다
+    void invalidate() {
+        token++;
+        speculative = new ConcurrentHashMap<>();
+    }
+
+    private void speculate(ChessLogic logic, PositionStatus status, int t, Map<Long, PositionStatus> children) {
+        if (status.isGameOver()) return;
+        for (int i = 0; i < status.getMoveCount() && t == token; i++) {
+            logic.makeMove(status.getMove(i));
+            PositionStatus next = PositionStatus.of(logic);
+            logic.unmakeMove();
+            children.put(next.getKey(), next);
+        }
+    }
+}
@@ -1,8 +1,21 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.imageio.ImageIO;
 import javax.sound.sampled.*;
 
 public class ResourceManager {
@@ -10,47 +23,292 @@ public class ResourceManager {
     public static final String IMAGE_PATH = "images/";
     public static final String SOUND_PATH = "sounds/";
 
-    private static Map<String, ImageIcon> imageCache = new HashMap<>();
+    // --- 기물 스프라이트 아틀라스 ---
+    // PNG는 한 번만 읽어서 화면과 같은 형식의 BufferedImage(원본, 최대 MASTER_SIZE)로 바꿔 둔다.
+    // 크기별로 미리 그린 스프라이트 묶음은 최근에 쓴 SPRITE_SIZES 개만 남긴다 (LRU).
+    // 새 크기는 백그라운드 스레드에서 만들고, 다 되면 EDT에서 콜백을 부른다. getSprite는 기다리지 않는다:
+    // 없는 크기면 만들기를 맡기고 null(또는 가장 가까운 크기)을 돌려준다.
+    private static final String[] PIECES = {
+            "WhiteKing", "WhiteQueen", "WhiteRook", "WhiteBishop", "WhiteKnight", "WhitePawn",
+            "BlackKing", "BlackQueen", "BlackRook", "BlackBishop", "BlackKnight", "BlackPawn"
+    };
+    private static final int SPRITE_SIZES = 6;
+    private static final int MASTER_SIZE = 512;   // 원본 PNG는 1920px라서 그대로 두면 장당 14MB, 축소도 느리다
 
-    public static void preloadImages(int squareSize) {
-        String[] pieces = {
-                "WhiteKing", "WhiteQueen", "WhiteRook", "WhiteBishop", "WhiteKnight", "WhitePawn",
-                "BlackKing", "BlackQueen", "BlackRook", "BlackBishop", "BlackKnight", "BlackPawn"
-        };
-        for (String piece : pieces) {
-            try {
-                ImageIcon icon = new ImageIcon(IMAGE_PATH + piece + ".png");
-                if (icon.getIconWidth() > 0) {
-                    Image img = icon.getImage().getScaledInstance(squareSize - 10, squareSize - 10, Image.SCALE_SMOOTH);
-                    imageCache.put(piece, new ImageIcon(img));
+    private static final Map<String, BufferedImage> sources = new HashMap<>();
+    private static final Map<Integer, Map<String, BufferedImage>> sprites =
+            new LinkedHashMap<Integer, Map<String, BufferedImage>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Map<String, BufferedImage>> eldest) {
+                    return size() > SPRITE_SIZES;
                 }
-            } catch (Exception e) {}
+            };
+    private static final Map<Integer, List<Runnable>> building = new HashMap<>();   // 만드는 중인 크기 -> 다 되면 부를 것
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sprite-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // size 크기(픽셀) 스프라이트를 백그라운드에서 준비한다. 이미 있으면 바로 끝난다
+    public static void preloadImages(int size) { preloadImages(size, null); }
+
+    public static void preloadImages(int size, Runnable onReady) {
+        build(size, onReady);
+    }
+
+    // size 크기의 기물 스프라이트. 아직 없으면 loader에 만들기를 맡기고 null (이미지 파일이 없어도 null)
+    public static BufferedImage getSprite(String pieceName, int size) { return getSprite(pieceName, size, null); }
+
+    // 위와 같고, 없어서 만들기를 맡겼으면 다 된 뒤 EDT에서 onReady를 부른다 (같은 onReady는 한 번만)
+    public static BufferedImage getSprite(String pieceName, int size, Runnable onReady) {
+        synchronized (sprites) {
+            Map<String, BufferedImage> set = sprites.get(size);
+            if (set != null) return set.get(pieceName);
         }
+        build(size, onReady);
+        return null;
     }
 
-    public static ImageIcon getImage(String pieceName) {
-        return imageCache.get(pieceName);
+    // 그리는 쪽에서 늘이거나 줄여 쓸 수 있을 때: size가 없으면 가장 가까운 크기의 것을 주고 size는 만들기를 맡긴다
+    public static BufferedImage getNearestSprite(String pieceName, int size, Runnable onReady) {
+        Map<String, BufferedImage> nearest = null;
+        synchronized (sprites) {
+            Map<String, BufferedImage> set = sprites.get(size);
+            if (set != null) return set.get(pieceName);
+            int best = Integer.MAX_VALUE;
+            for (Map.Entry<Integer, Map<String, BufferedImage>> e : sprites.entrySet()) {   // 순회는 LRU 순서를 바꾸지 않는다
+                int d = Math.abs(e.getKey() - size);
+                if (d < best) { best = d; nearest = e.getValue(); }
+            }
+        }
+        build(size, onReady);
+        return nearest == null ? null : nearest.get(pieceName);
     }
 
-    // 애니메이션용 이미지 (크기 조절 안 함)
-    public static ImageIcon getAnimationImage(String fileName) {
-        return new ImageIcon(IMAGE_PATH + "animation/" + fileName);
+    // size가 없으면 loader에서 만든다 (크기마다 한 번만 맡긴다). 다 되면, 이미 있으면 바로 onReady를 EDT에서 부른다
+    private static void build(int size, Runnable onReady) {
+        synchronized (sprites) {
+            if (!sprites.containsKey(size)) {
+                List<Runnable> list = building.get(size);
+                boolean queued = list != null;
+                if (!queued) building.put(size, list = new ArrayList<>());
+                if (onReady != null && !list.contains(onReady)) list.add(onReady);
+                if (!queued) loader.execute(() -> {
+                    Map<String, BufferedImage> set = createSprites(size);
+                    List<Runnable> callbacks;
+                    synchronized (sprites) {
+                        sprites.putIfAbsent(size, set);
+                        callbacks = building.remove(size);
+                    }
+                    if (!callbacks.isEmpty()) SwingUtilities.invokeLater(() -> { for (Runnable r : callbacks) r.run(); });
+                });
+                return;
+            }
+        }
+        if (onReady != null) SwingUtilities.invokeLater(onReady);
     }
 
-    // [수정] 다이얼로그 배경용 Image 객체 반환 메서드 추가
-    public static Image getDialogImage(String fileName) {
-        return new ImageIcon(IMAGE_PATH + fileName).getImage();
+    private static Map<String, BufferedImage> createSprites(int size) {
+        Map<String, BufferedImage> set = new HashMap<>();
+        for (String piece : PIECES) {
+            BufferedImage src = source(piece);
+            if (src != null) set.put(piece, scale(src, Math.max(1, size)));
+        }
+        return set;
     }
 
-    public static void playSound(String fileName) {
+    // PNG 풀기는 락 밖에서 한다
+    private static BufferedImage source(String piece) {
+        synchronized (sources) {
+            if (sources.containsKey(piece)) return sources.get(piece);
+        }
+        BufferedImage img = null;
         try {
-            File soundFile = new File(SOUND_PATH + fileName);
-            if (soundFile.exists()) {
-                AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(soundFile);
-                Clip clip = AudioSystem.getClip();
-                clip.open(audioInputStream);
-                clip.start();
+            File file = new File(IMAGE_PATH + piece + ".png");
+            if (file.exists()) {
+                BufferedImage raw = ImageIO.read(file);
+                if (raw != null) img = scale(raw, Math.min(MASTER_SIZE, Math.max(raw.getWidth(), raw.getHeight())));
             }
         } catch (Exception e) {}
+        synchronized (sources) {
+            if (!sources.containsKey(piece)) sources.put(piece, img);
+            return sources.get(piece);
+        }
+    }
+
+    // 한 번에 절반 이하로 줄이면 계단이 생기므로 절반씩 줄여 가다 마지막에 맞춘다
+    private static BufferedImage scale(BufferedImage src, int size) {
+        BufferedImage img = src;
+        int w = src.getWidth(), h = src.getHeight();
+        do {
+            w = Math.max(size, w / 2);
+            h = Math.max(size, h / 2);
+            if (w < size * 2 && h < size * 2) { w = size; h = size; }
+            BufferedImage next = compatible(w, h);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(img, 0, 0, w, h, null);
+            g.dispose();
+            img = next;
+        } while (w != size || h != size);
+        return img;
+    }
+
+    private static BufferedImage compatible(int w, int h) {
+        if (GraphicsEnvironment.isHeadless()) return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+    }
+
+    // --- 잡기 장면 / 다이얼로그 이미지 캐시 ---
+    // 1024px PNG 한 장을 푸는 데 100~400ms가 걸려서 EDT에서 읽지 않는다. 읽기는 loader 스레드가 하고,
+    // 풀린 이미지는 픽셀 수 * 4 바이트를 무게로 쳐서 합이 IMAGE_CACHE_BYTES를 넘으면 오래 안 쓴 것부터 버린다.
+    private static final long IMAGE_CACHE_BYTES = 48L * 1024 * 1024;
+    private static final Map<String, BufferedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Map<String, List<Consumer<Image>>> waiting = new HashMap<>();
+    private static final Set<String> missing = new HashSet<>();
+    private static long imageBytes;
+
+    // 잡기 장면 이미지를 onLoaded(EDT)로 넘긴다. 캐시에 있으면 바로, 없으면 다 읽은 뒤에. 파일이 없으면 부르지 않는다
+    public static void getAnimationImage(String fileName, Consumer<Image> onLoaded) {
+        Image img = request(IMAGE_PATH + "animation/" + fileName, onLoaded);
+        if (img != null) onLoaded.accept(img);
+    }
+
+    // 다음에 쓸 것 같은 잡기 장면 이미지를 미리 읽어 둔다
+    public static void prefetchAnimationImages(Collection<String> fileNames) {
+        for (String fileName : fileNames) request(IMAGE_PATH + "animation/" + fileName, null);
+    }
+
+    // 다이얼로그 배경을 onLoaded(EDT)로 넘긴다. 캐시에 있으면 바로, 없으면 다 읽은 뒤에. onLoaded가 null이면 미리 읽기만 한다.
+    // 화면을 만들 때 한 번 부르고 받은 이미지를 들고 있는다 (paintComponent에서 부르면 읽는 동안 칠할 때마다 콜백이 쌓인다)
+    public static void getDialogImage(String fileName, Consumer<Image> onLoaded) {
+        Image img = request(IMAGE_PATH + fileName, onLoaded);
+        if (img != null && onLoaded != null) onLoaded.accept(img);
+    }
+
+    private static Image request(String path, Consumer<Image> callback) {
+        synchronized (images) {
+            BufferedImage img = images.get(path);
+            if (img != null || missing.contains(path)) return img;
+            List<Consumer<Image>> list = waiting.get(path);
+            boolean queued = list != null;
+            if (!queued) waiting.put(path, list = new ArrayList<>());
+            if (callback != null) list.add(callback);
+            if (queued) return null;
+        }
+        loader.execute(() -> {
+            BufferedImage img = decode(path);
+            List<Consumer<Image>> callbacks;
+            synchronized (images) {
+                callbacks = waiting.remove(path);
+                if (img == null) missing.add(path);
+                else {
+                    images.put(path, img);
+                    imageBytes += weight(img);
+                    // 방금 넣은 것 하나만 남을 때까지는 오래된 것부터 버린다
+                    Iterator<BufferedImage> it = images.values().iterator();
+                    while (imageBytes > IMAGE_CACHE_BYTES && images.size() > 1) {
+                        imageBytes -= weight(it.next());
+                        it.remove();
+                    }
+                }
+            }
+            if (img != null && !callbacks.isEmpty()) {
+                SwingUtilities.invokeLater(() -> { for (Consumer<Image> c : callbacks) c.accept(img); });
+            }
+        });
+        return null;
+    }
+
+    private static BufferedImage decode(String path) {
+        try {
+            File file = new File(path);
+            if (!file.exists()) return null;
+            BufferedImage raw = ImageIO.read(file);
+            if (raw == null) return null;
+            BufferedImage img = compatible(raw.getWidth(), raw.getHeight());
+            Graphics2D g = img.createGraphics();
+            g.drawImage(raw, 0, 0, null);
+            g.dispose();
+            return img;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static long weight(BufferedImage img) { return (long) img.getWidth() * img.getHeight() * 4; }
+
+    // --- 효과음 ---
+    // sounds/의 WAV는 시작할 때 한 번만 PCM으로 풀어서 소리마다 Clip을 CLIPS_PER_SOUND 개 열어 둔다.
+    // 재생은 audio 스레드가 큐에서 이름을 꺼내 쉬고 있는 Clip을 처음으로 되감아 트는 것뿐이라
+    // EDT는 큐에 넣기만 하고, 재생할 때마다 새로 만드는 객체도 없다.
+    private static final int CLIPS_PER_SOUND = 3;
+
+    private static final class SoundPool {
+        final Clip[] clips;
+        int next;
+        SoundPool(Clip[] clips) { this.clips = clips; }
+    }
+
+    private static final Map<String, SoundPool> sounds = new HashMap<>();
+    private static final ArrayBlockingQueue<String> soundQueue = new ArrayBlockingQueue<>(16);
+    private static Thread audioThread;
+
+    // audio 스레드를 띄워서 효과음을 미리 읽는다. 여러 번 불러도 한 번만 한다
+    public static synchronized void preloadSounds() {
+        if (audioThread != null) return;
+        audioThread = new Thread(() -> {
+            loadSounds();
+            try {
+                while (true) play(soundQueue.take());
+            } catch (InterruptedException e) {}
+        }, "audio");
+        audioThread.setDaemon(true);
+        audioThread.start();
+    }
+
+    // 큐가 꽉 찼으면 (같은 순간에 16개 넘게) 버린다
+    public static void playSound(String fileName) {
+        if (audioThread == null) preloadSounds();
+        soundQueue.offer(fileName);
+    }
+
+    private static void loadSounds() {
+        File[] files = new File(SOUND_PATH).listFiles((dir, name) -> name.toLowerCase().endsWith(".wav"));
+        if (files == null) return;
+        for (File file : files) {
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(file)) {
+                AudioFormat format = in.getFormat();
+                AudioInputStream pcm = in;
+                if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
+                    format = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+                    pcm = AudioSystem.getAudioInputStream(format, in);
+                }
+                byte[] data = pcm.readAllBytes();
+                Clip[] clips = new Clip[CLIPS_PER_SOUND];
+                for (int i = 0; i < clips.length; i++) {
+                    clips[i] = AudioSystem.getClip();
+                    clips[i].open(format, data, 0, data.length);
+                }
+                sounds.put(file.getName(), new SoundPool(clips));
+            } catch (Exception e) {}   // 오디오 장치가 없거나 읽을 수 없는 파일이면 소리 없이 진행
+        }
+    }
+
+    // 멈춰 있는 Clip이 있으면 그것을, 모두 재생 중이면 돌아가며 하나를 끊고 되감아 다시 쓴다
+    private static void play(String fileName) {
+        SoundPool pool = sounds.get(fileName);
+        if (pool == null) return;
+        Clip clip = null;
+        for (Clip c : pool.clips) if (!c.isActive()) { clip = c; break; }
+        if (clip == null) {
+            clip = pool.clips[pool.next];
+            pool.next = (pool.next + 1) % pool.clips.length;
+            clip.stop();
+        }
+        clip.setFramePosition(0);
+        clip.start();
     }
-}
\ No newline at end of file
+}
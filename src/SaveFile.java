@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// --- 저장 파일 (saved_game.bin: 저장 버튼, autosave.bin: 자동 저장) ---
+// 두 칸은 따로 둔다. 새 게임의 자동 저장이 저장 버튼으로 남긴 게임을 덮어쓰거나 지우지 않게 하기 위해서다.
+// 시작 국면 + 그 뒤로 둔 수 전체를 저장해서, 불러올 때 수순을 다시 두어 캐슬링 / 앙파상 / 반복 판정 기록까지 그대로 되살린다.
+// 배치 (big-endian):
+//   "CHSV" | 버전 (2) | 플래그 (1, bit0 = 컴퓨터 대전, bit1 = saved_game.bin에서 불러와 이어 두는 판) | 백 남은 시간 ms (8) | 흑 남은 시간 ms (8)
+//   시작 국면: 칸마다 4비트 (기물 번호 + 1, 0 = 빈 칸) 32바이트 | 차례 (1) | 캐슬링 권리 (1) | 앙파상 칸 (1, 없으면 0xFF) | 반수 카운터 (2)
+//   수 개수 (2) | 수마다 16비트: 출발 칸 (6) | 도착 칸 (6) << 6 | 승진 기물 종류 (4) << 12
+//   CRC32 (4, 앞의 모든 바이트)
+// 쓰기는 임시 파일에 쓰고 디스크에 내린 뒤 이름을 바꾸므로 저장 도중 꺼져도 이전 저장은 남는다.
+final class SaveFile {
+    static final Path PATH = Paths.get("saved_game.bin");
+    static final Path AUTOSAVE_PATH = Paths.get("autosave.bin");      // 자동 저장 스냅샷 (Journal이 이어 붙는다)
+    static final Path LEGACY_PATH = Paths.get("saved_game.txt");   // 예전 텍스트 형식 (읽기만)
+
+    private static final int MAGIC = 0x43485356;   // "CHSV"
+    private static final int VERSION = 1;
+    private static final int HEADER = 4 + 2 + 1 + 8 + 8;
+    private static final int POSITION = 32 + 1 + 1 + 1 + 2;
+
+    // 불러온 내용. 시작 국면은 되돌리기 기록 없이, moves는 그 국면부터 둔 순서대로
+    static final class Game {
+        final ChessLogic start;
+        final int[] moves;          // 16비트 수 코드
+        final long whiteMillis, blackMillis;
+        final boolean vsComputer;
+        final boolean fromManualSave;   // 자동 저장에만 쓰인다: 끝나면 saved_game.bin도 지울 판
+        final int checksum;         // 파일 끝의 CRC (저널이 어느 저장 파일에 이어지는지 확인하는 데 쓴다)
+
+        Game(ChessLogic start, int[] moves, long whiteMillis, long blackMillis, boolean vsComputer, boolean fromManualSave, int checksum) {
+            this.start = start;
+            this.moves = moves;
+            this.whiteMillis = whiteMillis;
+            this.blackMillis = blackMillis;
+            this.vsComputer = vsComputer;
+            this.fromManualSave = fromManualSave;
+            this.checksum = checksum;
+        }
+    }
+
+    private SaveFile() {}
+
+    static boolean exists() { return Files.exists(PATH) || Files.exists(AUTOSAVE_PATH) || Files.exists(LEGACY_PATH); }
+
+    // start: 수순이 시작된 국면, current: start에서 current.getPly()개의 수를 둔 지금 국면
+    static ByteBuffer encode(ChessLogic start, ChessLogic current, long whiteMillis, long blackMillis, boolean vsComputer, boolean fromManualSave) {
+        int count = current.getPly();
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + POSITION + 2 + count * 2 + 4);
+        buf.putInt(MAGIC).putShort((short) VERSION).put((byte) ((vsComputer ? 1 : 0) | (fromManualSave ? 2 : 0))).putLong(whiteMillis).putLong(blackMillis);
+        putPosition(buf, start);
+        buf.putShort((short) count);
+        for (int i = 0; i < count; i++) buf.putShort((short) encode(current.getMoveAt(i)));
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+        buf.flip();
+        return buf;
+    }
+
+    static int checksum(ByteBuffer encoded) { return encoded.getInt(encoded.limit() - 4); }
+
+    // 인코딩된 저장 내용을 임시 파일을 거쳐 path에 쓴다
+    static void write(Path path, ByteBuffer encoded) throws IOException {
+        ByteBuffer buf = encoded.duplicate();
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // 형식이 맞지 않거나 CRC가 틀리거나 둘 수 없는 수가 있으면 IOException
+    static Game read(Path path) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER + POSITION + 2 + 4 || size > 1 << 20) throw new IOException("잘못된 저장 파일 크기: " + size);
+            buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining()) if (ch.read(buf) < 0) throw new IOException("저장 파일이 잘렸습니다");
+        }
+        buf.flip();
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.limit() - 4);
+        int checksum = buf.getInt(buf.limit() - 4);
+        if ((int) crc.getValue() != checksum) throw new IOException("저장 파일이 손상되었습니다 (CRC)");
+
+        if (buf.getInt() != MAGIC) throw new IOException("저장 파일 형식이 아닙니다");
+        int version = buf.getShort();
+        if (version != VERSION) throw new IOException("지원하지 않는 저장 파일 버전: " + version);
+        int flags = buf.get();
+        boolean vsComputer = (flags & 1) != 0, fromManualSave = (flags & 2) != 0;
+        long whiteMillis = buf.getLong(), blackMillis = buf.getLong();
+        ChessLogic start = getPosition(buf);
+        int count = buf.getShort() & 0xFFFF;
+        if (buf.remaining() != count * 2 + 4) throw new IOException("수 개수가 맞지 않습니다");
+
+        int[] moves = new int[count];
+        for (int i = 0; i < count; i++) moves[i] = buf.getShort() & 0xFFFF;
+        validate(start, moves, count);
+        return new Game(start, moves, whiteMillis, blackMillis, vsComputer, fromManualSave, checksum);
+    }
+
+    // 수 코드가 실제로 둘 수 있는 수인지 시작 국면부터 두어 보며 확인한다
+    static void validate(ChessLogic start, int[] moves, int count) throws IOException {
+        ChessLogic check = new ChessLogic(start);
+        for (int i = 0; i < count; i++) {
+            int move = decode(check, moves[i]);
+            if (move == 0) throw new IOException((i + 1) + "번째 수를 둘 수 없습니다");
+            check.makeMove(move);
+        }
+    }
+
+    // 16비트 코드 -> 지금 국면의 수 (플래그 포함). 둘 수 없으면 0
+    static int decode(ChessLogic logic, int code) {
+        return logic.findMove(code & 63, (code >>> 6) & 63, code >>> 12);
+    }
+
+    static int encode(int move) { return Move.from(move) | Move.to(move) << 6 | Move.promotion(move) << 12; }
+
+    private static void putPosition(ByteBuffer buf, ChessLogic logic) {
+        Board board = logic.getBoard();
+        for (int sq = 0; sq < 64; sq += 2) {
+            buf.put((byte) (nibble(board.getPiece(sq)) << 4 | nibble(board.getPiece(sq + 1))));
+        }
+        buf.put((byte) (logic.getCurrentPlayer().equals("WHITE") ? 0 : 1));
+        buf.put((byte) logic.getCastlingRights());
+        buf.put((byte) logic.getEnPassantSquare());
+        buf.putShort((short) logic.getHalfmoveClock());
+    }
+
+    private static ChessLogic getPosition(ByteBuffer buf) throws IOException {
+        ChessLogic logic = new ChessLogic();
+        Board board = logic.getBoard();
+        board.clear();
+        for (int sq = 0; sq < 64; sq += 2) {
+            int b = buf.get() & 0xFF;
+            board.setPiece(sq, piece(b >>> 4));
+            board.setPiece(sq + 1, piece(b & 15));
+        }
+        int side = buf.get();
+        if (side != 0 && side != 1) throw new IOException("잘못된 차례: " + side);
+        logic.setCurrentPlayer(side == 0 ? "WHITE" : "BLACK");
+        logic.setCastlingRights(buf.get() & 15);
+        int ep = buf.get();
+        logic.setEnPassantSquare(ep >= 0 && ep < 64 ? ep : -1);
+        int halfmove = buf.getShort();
+        logic.resetHistory();
+        logic.setHalfmoveClock(halfmove);
+        return logic;
+    }
+
+    private static int nibble(Piece p) { return p == null ? 0 : p.getIndex() + 1; }
+
+    private static Piece piece(int nibble) throws IOException {
+        if (nibble == 0) return null;
+        if (nibble > 12) throw new IOException("잘못된 기물 번호: " + nibble);
+        return Piece.of(nibble <= 6, (nibble - 1) % 6);
+    }
+}
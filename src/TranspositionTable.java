@@ -0,0 +1,55 @@
+// --- 전치 표 (transposition table) ---
+// 다른 수순으로 같은 국면에 도착했을 때 이전 탐색 결과를 다시 쓰기 위한 고정 크기 해시 표.
+// 항목 하나 = long 두 개 [키 ^ 데이터, 데이터]. 읽을 때 키 ^ 데이터 ^ 데이터 == 키 인지 확인하므로
+// 여러 탐색 스레드가 잠금 없이 동시에 읽고 써도 반쯤 쓰인 항목은 그냥 빗나간 것으로 처리된다.
+final class TranspositionTable {
+    static final int EXACT = 0, LOWER = 1, UPPER = 2;
+
+    // 데이터 비트 배치: 수 (0~18) | 점수 + 32768 (19~34) | 깊이 (35~42) | 종류 (43~44) | 세대 (45~52)
+    private static final int SCORE_SHIFT = 19, DEPTH_SHIFT = 35, BOUND_SHIFT = 43, AGE_SHIFT = 45;
+
+    private final long[] table;
+    private final int mask;
+    private volatile int age;
+
+    TranspositionTable(int megabytes) {
+        // 항목 수는 2의 거듭제곱으로 맞춰서 인덱스를 & 한 번으로 구한다
+        long entries = Math.max(1024, megabytes * 1024L * 1024L / 16);
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 26));
+        table = new long[size * 2];
+        mask = size - 1;
+    }
+
+    // 새 탐색을 시작할 때 (병렬 탐색이면 스레드를 띄우기 전에) 한 번 불러서 오래된 항목이 먼저 교체되게 한다
+    void newSearch() { age = (age + 1) & 0xFF; }
+
+    void clear() { java.util.Arrays.fill(table, 0L); }
+
+    int sizeInMegabytes() { return (int) (table.length * 8L / (1024 * 1024)); }
+
+    // 찾으면 데이터, 없으면 0 (데이터에는 항상 점수 + 32768 이 들어 있어 0이 될 수 없다)
+    long probe(long key) {
+        int i = ((int) key & mask) << 1;
+        long data = table[i + 1];
+        return (table[i] ^ data) == key ? data : 0L;
+    }
+
+    // 같은 국면이거나, 더 깊게 찾은 결과이거나, 이전 탐색에서 남은 항목이면 덮어쓴다
+    void store(long key, int move, int score, int depth, int bound) {
+        int i = ((int) key & mask) << 1;
+        long oldData = table[i + 1];
+        boolean sameKey = (table[i] ^ oldData) == key;
+        if (!sameKey && oldData != 0 && depth(oldData) > depth && age(oldData) == age) return;
+        if (sameKey && move == 0) move = move(oldData);
+        long data = (move & 0x7FFFFL) | ((long) (score + 32768) << SCORE_SHIFT) | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT) | ((long) age << AGE_SHIFT);
+        table[i] = key ^ data;
+        table[i + 1] = data;
+    }
+
+    static int move(long data) { return (int) (data & 0x7FFFF); }
+    static int score(long data) { return (int) ((data >>> SCORE_SHIFT) & 0xFFFF) - 32768; }
+    static int depth(long data) { return (int) ((data >>> DEPTH_SHIFT) & 0xFF); }
+    static int bound(long data) { return (int) ((data >>> BOUND_SHIFT) & 3); }
+    private static int age(long data) { return (int) ((data >>> AGE_SHIFT) & 0xFF); }
+}
@@ -0,0 +1,22 @@
+import java.util.SplittableRandom;
+
+// --- Zobrist 해시 ---
+// 칸마다 기물마다 64비트 난수를 하나씩 정해 두고 XOR로 합친 값이 국면의 키가 된다.
+// 기물 하나를 놓거나 치울 때마다 XOR 한 번으로 갱신되므로 문자열을 만들 필요가 없다.
+final class Zobrist {
+    static final long[][] PIECE = new long[12][64];   // [Piece.getIndex()][칸]
+    static final long BLACK_TO_MOVE;
+    static final long[] CASTLING = new long[16];      // [MoveGenerator 캐슬링 권리 비트]
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    private Zobrist() {}
+
+    static {
+        // 고정 시드: 같은 국면은 실행할 때마다 같은 키를 가진다
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (long[] table : PIECE) for (int sq = 0; sq < 64; sq++) table[sq] = random.nextLong();
+        BLACK_TO_MOVE = random.nextLong();
+        for (int i = 0; i < 16; i++) CASTLING[i] = random.nextLong();
+        for (int i = 0; i < 8; i++) EN_PASSANT_FILE[i] = random.nextLong();
+    }
+}